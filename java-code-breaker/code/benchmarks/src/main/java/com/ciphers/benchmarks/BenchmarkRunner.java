@@ -0,0 +1,39 @@
+package com.ciphers.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with allocation profiling and writes the results as JSON
+ * Any JMH command line option (e.g. a benchmark name pattern or -p size=4096) can still be passed
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class BenchmarkRunner {
+    private static final String RESULTS_FILE = "benchmark-results.json";
+
+    /**
+     * Main method, ran when the benchmarks jar is started
+     *
+     * @param args JMH command line options
+     * @throws RunnerException            Error thrown
+     * @throws CommandLineOptionException Error thrown
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class) // same as -prof gc
+                .resultFormat(ResultFormatType.JSON)
+                .result(commandLine.getResult().orElse(RESULTS_FILE))
+                .build();
+        new Runner(options).run();
+    }
+}
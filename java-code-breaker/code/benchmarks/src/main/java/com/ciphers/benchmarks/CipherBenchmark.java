@@ -0,0 +1,209 @@
+package com.ciphers.benchmarks;
+
+import com.ciphers.CaesarCipher;
+import com.ciphers.Cipher;
+import com.ciphers.CompiledKey;
+import com.ciphers.KeySweep;
+import com.ciphers.KeyedCaesarCipher;
+import com.ciphers.QuadgramScorer;
+import com.ciphers.StreamingCipher;
+import com.ciphers.VigenereCipher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks encryption and decryption for each cipher
+ * Covers the String engines, the byte kernels used by streaming and the Caesar file channel path,
+ * across input sizes and key lengths
+ * Run with -prof gc to see allocation per operation
+ * Forks load jdk.incubator.vector so the byte benchmarks use the vector kernel,
+ * add -jvmArgsAppend -Dcom.ciphers.vector=false to compare with the scalar kernel
+ * Metrics are recorded as in normal use, add -jvmArgsAppend -Dcom.ciphers.metrics=false to measure their overhead
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class CipherBenchmark {
+
+    /**
+     * Length of the prepared text in characters, 64 bytes to 64 MB
+     */
+    @Param({"64", "4096", "262144", "16777216", "67108864"})
+    public int size;
+
+    /**
+     * Length of the keyword for Keyed Caesar and Vigenere, and the numeric shift for Caesar
+     */
+    @Param({"1", "8", "32"})
+    public int keyLength;
+
+    private Cipher caesar;
+    private Cipher keyed;
+    private Cipher vigenere;
+    private String keyword;
+    private byte[] bytes; // prepared text as bytes, encrypted in place by the byte benchmarks
+    private QuadgramScorer quadgrams;
+    private KeySweep sweep;
+    private List<CompiledKey> sweepKeys; // every Caesar shift and 64 random Vigenere keywords of keyLength letters
+    private Path channelFile; // prepared text on disk for the channel benchmark
+    private final WritableByteChannel discard = Channels.newChannel(OutputStream.nullOutputStream()); // measures reading and shifting, not disk writes
+
+    /**
+     * Builds random prepared text (upper case letters with roughly one space in six)
+     * and encrypts it once so decryption has real cipher text to work on
+     *
+     * @throws IOException Error thrown
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(size * 31L + keyLength);
+        char[] text = new char[size];
+        for (int i = 0; i < size; i++) {
+            int value = random.nextInt(32);
+            text[i] = value < 26 ? (char) ('A' + value) : ' ';
+        }
+        String plaintext = new String(text);
+        keyword = randomKeyword(random, keyLength);
+        bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) text[i];
+        }
+
+        caesar = new Cipher(plaintext, "", Integer.toString(keyLength));
+        caesar.setCiphertext(new CaesarCipher().encryptCaesar(caesar));
+        keyed = new Cipher(plaintext, "", keyLength + keyword);
+        keyed.setCiphertext(new KeyedCaesarCipher().encryptKeyed(keyed));
+        vigenere = new Cipher(plaintext, "", keyword);
+        vigenere.setCiphertext(new VigenereCipher().encryptVigenere(vigenere));
+        quadgrams = QuadgramScorer.fromCorpus(plaintext); // only the speed of scoring is measured, so any text will do
+        sweep = new KeySweep(plaintext, quadgrams);
+        sweepKeys = new ArrayList<>();
+        for (int shift = 0; shift < 26; shift++) {
+            sweepKeys.add(CompiledKey.compile("Caesar", Integer.toString(shift)));
+        }
+        for (int i = 0; i < 64; i++) {
+            sweepKeys.add(CompiledKey.compile("Vigenere", randomKeyword(random, keyLength)));
+        }
+        channelFile = Files.createTempFile("cipher-benchmark", ".txt");
+        Files.write(channelFile, bytes);
+    }
+
+    /**
+     * Deletes the file used by the channel benchmark
+     *
+     * @throws IOException Error thrown
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(channelFile);
+    }
+
+    @Benchmark
+    public String caesarEncrypt() {
+        return new CaesarCipher().encryptCaesar(caesar);
+    }
+
+    @Benchmark
+    public String caesarDecrypt() {
+        return new CaesarCipher().decryptCaesar(caesar);
+    }
+
+    @Benchmark
+    public String keyedEncrypt() {
+        return new KeyedCaesarCipher().encryptKeyed(keyed);
+    }
+
+    @Benchmark
+    public String keyedDecrypt() {
+        return new KeyedCaesarCipher().decryptKeyed(keyed);
+    }
+
+    @Benchmark
+    public String vigenereEncrypt() {
+        return new VigenereCipher().encryptVigenere(vigenere);
+    }
+
+    @Benchmark
+    public String vigenereDecrypt() {
+        return new VigenereCipher().decryptVigenere(vigenere);
+    }
+
+    @Benchmark
+    public String vigenereEncryptParallel() {
+        return new VigenereCipher().encryptVigenereParallel(vigenere);
+    }
+
+    @Benchmark
+    public byte[] caesarEncryptBytes() {
+        new StreamingCipher("Caesar", Integer.toString(keyLength), true).process(bytes, 0, size);
+        return bytes;
+    }
+
+    @Benchmark
+    public long caesarEncryptChannel() throws IOException {
+        try (FileChannel in = FileChannel.open(channelFile, StandardOpenOption.READ)) {
+            return CaesarCipher.encryptChannel(in, discard, keyLength);
+        }
+    }
+
+    @Benchmark
+    public byte[] vigenereEncryptBytes() {
+        new StreamingCipher("Vigenere", keyword, true).process(bytes, 0, size);
+        return bytes;
+    }
+
+    @Benchmark
+    public double quadgramScoreBytes() {
+        return quadgrams.score(bytes, 0, size);
+    }
+
+    @Benchmark
+    public List<KeySweep.Result> keySweep() {
+        return sweep.sweep(sweepKeys);
+    }
+
+    /**
+     * Random keyword of upper case letters
+     *
+     * @param random random source
+     * @param length number of letters
+     * @return keyword
+     */
+    private static String randomKeyword(SplittableRandom random, int length) {
+        char[] keyword = new char[length];
+        for (int i = 0; i < length; i++) {
+            keyword[i] = (char) ('A' + random.nextInt(26));
+        }
+        return new String(keyword);
+    }
+}
@@ -1,11 +1,32 @@
-import com.ciphers.CaesarCipher;
-import com.ciphers.Cipher;
-import com.ciphers.KeyedCaesarCipher;
-import com.ciphers.VigenereCipher;
+import com.ciphers.BatchProcessor;
+import com.ciphers.CaesarCracker;
+import com.ciphers.CipherEngine;
+import com.ciphers.CipherPipeline;
+import com.ciphers.CipherStatistics;
+import com.ciphers.CipherService;
+import com.ciphers.CrackCache;
+import com.ciphers.CribDragger;
+import com.ciphers.DictionaryScorer;
+import com.ciphers.FrequencyAnalysis;
+import com.ciphers.KeyCandidate;
+import com.ciphers.KeyStore;
+import com.ciphers.KeyedCaesarCracker;
+import com.ciphers.LetterIndex;
+import com.ciphers.PackedCipherFile;
+import com.ciphers.QuadgramScorer;
+import com.ciphers.ResumableCipher;
+import com.ciphers.StreamingCipher;
+import com.ciphers.TextNormaliser;
+import com.ciphers.VigenereCracker;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -20,26 +41,91 @@ public class CodeBreaker {
     private static final String keyedCaesarKeyFile = "keyed-caesar-key.txt";
     private static final String vigenereKeyFile = "vigenere-key.txt";
     private static final String prepPlainTextFile = "prep.txt";
+    private static final String keyStoreFile = "keys.txt";
+    private static final String crackCacheFile = "crack-cache.bin";
     private Scanner scan;
     private String key;
     private String currentCipher;
     private String prepPlainText;
     private String cipherText;
+    private TextNormaliser.Policy whitespacePolicy;
+    private KeyStore keyStore;
+    private CrackCache crackCache;
+    private String keyName;
 
     /**
      * Initialise CodeBreaker with the current cipher
-     * default set to Caesar Cipher
+     * default set to Caesar Cipher, keeping whitespace when text is prepared
      */
     private CodeBreaker() {
         currentCipher = "Caesar";
+        whitespacePolicy = TextNormaliser.Policy.KEEP;
+        keyName = KeyStore.DEFAULT_NAME;
     }
 
     /**
      * Runs when code starts
+     * Loads every key from the key store once, importing the old per-cipher key files the first time
      * Loads key for the current cipher selected
      */
     private void initialise() {
+        try {
+            keyStore = new KeyStore(Paths.get(keyStoreFile));
+        } catch (IOException e) {
+            System.err.println("\nError occurred. Cannot read key store " + keyStoreFile + ".");
+            System.exit(1); // stops before any change could overwrite the saved keys
+        }
+        if (keyStore.size() == 0) {
+            importKeyFile("Caesar", caesarKeyFile);
+            importKeyFile("Keyed Caesar", keyedCaesarKeyFile);
+            importKeyFile("Vigenere", vigenereKeyFile);
+        }
         loadKeys();
+        try {
+            crackCache = new CrackCache(CrackCache.DEFAULT_CAPACITY, Paths.get(crackCacheFile));
+        } catch (IOException e) {
+            System.err.println("\nError occurred. Cannot open crack cache " + crackCacheFile + ", cracked keys will not be kept between runs.");
+            crackCache = new CrackCache(CrackCache.DEFAULT_CAPACITY);
+        }
+    }
+
+    /**
+     * Adds the key from an old single-key file to the key store under the default name
+     *
+     * @param cipherType Cipher the key file belongs to
+     * @param filename   Name of the old key file
+     */
+    private void importKeyFile(String cipherType, String filename) {
+        if (Files.exists(Paths.get(filename))) {
+            String oldKey = loadKeyFromFile(filename);
+            if (!oldKey.isEmpty()) {
+                keyStore.put(cipherType, KeyStore.DEFAULT_NAME, oldKey);
+            }
+        }
+    }
+
+    /**
+     * Writes any unsaved keys and stops the key store's background writer
+     */
+    private void closeKeyStore() {
+        try {
+            keyStore.close();
+        } catch (IOException e) {
+            System.err.println("\nError occurred. Could not save keys.");
+            System.out.println();
+        }
+    }
+
+    /**
+     * Writes the crack cache file to disk and closes it
+     */
+    private void closeCrackCache() {
+        try {
+            crackCache.close();
+        } catch (IOException e) {
+            System.err.println("\nError occurred. Could not save crack cache.");
+            System.out.println();
+        }
     }
 
     /**
@@ -101,8 +187,28 @@ public class CodeBreaker {
                         throw new RuntimeException(e); // else throws runtime exception
                     }
                     break;
+                case "14":
+                    streamFile(true); // encrypts a file of any size chunk by chunk
+                    break;
+                case "15":
+                    streamFile(false); // decrypts a file of any size chunk by chunk
+                    break;
+                case "16":
+                    crack(); // finds the key for the cipher text without knowing it
+                    break;
+                case "17":
+                    changeWhitespacePolicy(); // keep, drop or group whitespace when text is prepared
+                    break;
+                case "18":
+                    selectKeyName(); // switches between the named keys for the current cipher
+                    break;
+                case "19":
+                    cribDrag(); // finds the key from a word known to be in the message
+                    break;
                 case "q":
                     saveKeys();
+                    closeKeyStore(); // waits for the keys to be written
+                    closeCrackCache();
                     System.exit(0); // exits program
                     break;
                 default:
@@ -130,6 +236,12 @@ public class CodeBreaker {
         System.out.println("11 - Decrypt");
         System.out.println("12 - Display Plain Text");
         System.out.println("13 - Save Plain Text");
+        System.out.println("14 - Stream Encrypt File");
+        System.out.println("15 - Stream Decrypt File");
+        System.out.println("16 - Crack Cipher Text");
+        System.out.println("17 - Change Whitespace Policy (" + whitespacePolicy + ")");
+        System.out.println("18 - Select Key Name (" + keyName + ")");
+        System.out.println("19 - Crib Drag Cipher Text");
         System.out.println("Q - Quit Program");
     }
 
@@ -139,7 +251,7 @@ public class CodeBreaker {
      */
     private void caesarCipher() {
         currentCipher = "Caesar";
-        loadKeys(); // loads caesar-key.txt
+        loadKeys(); // reads the current key from the key store
     }
 
     /**
@@ -148,7 +260,7 @@ public class CodeBreaker {
      */
     private void keyedCaesarCipher() {
         currentCipher = "Keyed Caesar";
-        loadKeys(); // loads keyed-caesar-key.txt
+        loadKeys(); // reads the current key from the key store
     }
 
     /**
@@ -157,7 +269,7 @@ public class CodeBreaker {
      */
     private void vigenereCipher() {
         currentCipher = "Vigenere";
-        loadKeys(); // loads vigenere-key.txt
+        loadKeys(); // reads the current key from the key store
     }
 
     /**
@@ -230,53 +342,57 @@ public class CodeBreaker {
     }
 
     /**
-     * Checks the current selected cipher and loads the key relevant to that cipher
+     * Loads the key with the current name for the current selected cipher from the key store
      */
     private void loadKeys() {
-        switch (currentCipher) {
-            case "Caesar":
-                key = loadKeyFromFile(caesarKeyFile); // passes caesar-key.txt
-                break;
-            case "Keyed Caesar":
-                key = loadKeyFromFile(keyedCaesarKeyFile); // passes keyed-caesar-key.txt
-                break;
-            case "Vigenere":
-                key = loadKeyFromFile(vigenereKeyFile); // passes vigenere-key.txt
-                break;
-            default:
-                System.err.println("\nError occurred. Incorrect cipher type.");
-                System.out.println();
+        key = keyStore.get(currentCipher, keyName);
+        if (key == null) { // no key saved under this name yet
+            System.err.println("\nError occurred. No key saved for " + currentCipher + " named " + keyName + ".");
+            System.out.println();
+            key = "";
         }
     }
 
     /**
-     * This method saves the current contents of the key, to the corresponding key file
-     * based on the current chosen cipher
+     * This method saves the current contents of the key to the key store
+     * under the current name for the current chosen cipher, the store writes it to file in the background
      */
     private void saveKeys() {
+        if (key == null || key.isEmpty()) { // nothing to save
+            return;
+        }
         try {
-            switch (currentCipher) {
-                case "Caesar":
-                    Files.write(Paths.get(caesarKeyFile), key.getBytes());
-                    break;
-                case "Keyed Caesar":
-                    Files.write(Paths.get(keyedCaesarKeyFile), key.getBytes());
-                    break;
-                case "Vigenere":
-                    Files.write(Paths.get(vigenereKeyFile), key.getBytes());
-                    break;
-                default:
-                    System.err.println("\nError occurred. Incorrect cipher type.");
-                    System.out.println();
-            }
-        } catch (IOException e) {
+            keyStore.put(currentCipher, keyName, key);
+        } catch (IllegalArgumentException e) {
             System.err.println("\nError occurred. Could not save keys.");
             System.out.println();
         }
+        if (keyStore.getLastError() != null) { // reports a failed background write from an earlier change
+            System.err.println("\nError occurred. Could not save keys to " + keyStoreFile + ".");
+            System.out.println();
+        }
     }
 
     /**
-     * Called from the loadKeys() method
+     * Lists the saved key names for the current cipher and lets the user choose one
+     * A new name starts with no key until one is entered with Edit Key
+     */
+    private void selectKeyName() {
+        System.out.println("\nSaved keys for " + currentCipher + ": " + keyStore.names(currentCipher));
+        System.out.println("Enter key name: ");
+        String name = scan.nextLine().trim();
+        if (name.isEmpty() || name.indexOf('\t') >= 0) {
+            System.err.println("Error occurred. Key name cannot be empty or contain tabs.");
+            System.out.println();
+            return;
+        }
+        keyName = name;
+        loadKeys();
+        System.out.println();
+    }
+
+    /**
+     * Called from the importKeyFile() method
      * Loads the key from the specific file containing key data for each cipher
      * Contains error checking to ensure file exists
      *
@@ -285,7 +401,7 @@ public class CodeBreaker {
      */
     private String loadKeyFromFile(String filename) {
         try (Scanner input = new Scanner(new File(filename))) { // reads the first line of the key file, returns it as string
-            return input.nextLine();
+            return input.hasNextLine() ? input.nextLine() : ""; // an empty key file has no line
         } catch (FileNotFoundException e) { // else throw FileNotFoundException
             System.err.println("\nError occurred. File not found.");
             System.out.println();
@@ -295,25 +411,29 @@ public class CodeBreaker {
 
     /**
      * Inputs the Plain Text file prep.txt
-     * Converts all text to uppercase
+     * Converts all text to uppercase and handles whitespace by the current policy in a single pass
      */
     private void inputPlainFile() {
         System.out.println("\nEnter file name for plain text: ");
         String plainTextFile = scan.nextLine(); // reads user input
         System.out.println();
+        byte[] prepared;
+        int length;
         try {
-            prepPlainText = new String(Files.readAllBytes(Paths.get(plainTextFile)));
-            prepPlainText = prepPlainText.replaceAll("[^a-zA-Z\\s]", ""); // removes all punctuation from plain text
-            prepPlainText = prepPlainText.toUpperCase(); // converts all plain text to uppercase
+            byte[] raw = Files.readAllBytes(Paths.get(plainTextFile));
+            TextNormaliser normaliser = new TextNormaliser(whitespacePolicy);
+            prepared = normaliser.maxLength(raw.length) > raw.length ? new byte[normaliser.maxLength(raw.length)] : raw; // prepared in place unless groups add spaces
+            length = normaliser.normalise(raw, 0, raw.length, prepared, 0); // removes all punctuation and converts to uppercase
+            prepPlainText = new String(prepared, 0, length, StandardCharsets.US_ASCII);
         } catch (IOException e) { // else throws IOException
             System.err.println("Error occurred. Cannot read plain text file.");
             prepPlainText = "";
+            prepared = new byte[0];
+            length = 0;
             System.out.println();
         }
-        try {
-            FileWriter writer = new FileWriter(prepPlainTextFile);
-            writer.write(prepPlainText);
-            writer.close();
+        try (OutputStream writer = new FileOutputStream(prepPlainTextFile)) { // prepared bytes are written as they are, without encoding the string again
+            writer.write(prepared, 0, length);
         } catch (IOException e) {
             System.err.println("Error occurred. Cannot write to prepared plain text file.");
             System.out.println();
@@ -322,16 +442,25 @@ public class CodeBreaker {
 
     /**
      * Allows user to input file name of stored cipher text
-     * Reads all data inside file
+     * Reads all data inside file, converts it to uppercase and handles whitespace by the current policy
      */
     private void inputCipherFile() {
         System.out.println("\nEnter file name for cipher text: ");
         String cipherTextFile = scan.nextLine();
         System.out.println();
         try {
-            cipherText = new String(Files.readAllBytes(Paths.get(cipherTextFile)));
-            cipherText = cipherText.replaceAll("[^a-zA-Z\\s]", ""); // removes all punctuation from plain text
-            cipherText = cipherText.toUpperCase(); // converts all plain text to uppercase
+            byte[] raw;
+            if (cipherTextFile.endsWith(PackedCipherFile.EXTENSION)) {
+                ByteArrayOutputStream unpacked = new ByteArrayOutputStream();
+                PackedCipherFile.unpack(Paths.get(cipherTextFile), unpacked);
+                raw = unpacked.toByteArray();
+            } else {
+                raw = Files.readAllBytes(Paths.get(cipherTextFile));
+            }
+            TextNormaliser normaliser = new TextNormaliser(whitespacePolicy);
+            byte[] prepared = normaliser.maxLength(raw.length) > raw.length ? new byte[normaliser.maxLength(raw.length)] : raw;
+            int length = normaliser.normalise(raw, 0, raw.length, prepared, 0); // removes all punctuation and converts to uppercase
+            cipherText = new String(prepared, 0, length, StandardCharsets.US_ASCII);
         } catch (IOException e) { // else throws IOException
             System.err.println("Error occurred. Cannot read cipher text file.");
             System.out.println();
@@ -340,27 +469,45 @@ public class CodeBreaker {
     }
 
     /**
-     * Encrypts the data inside the plain text file using the current selected cipher
-     * Calls the class of the relevant cipher
+     * Allows the user to choose how whitespace is handled when text is prepared
+     * Keep leaves it unchanged, drop removes it, groups removes it and splits the letters into groups of five
      */
-    private void encrypt() {
-        Cipher cipher = new Cipher(prepPlainText, cipherText, key);
-        switch (currentCipher) {
-            case "Caesar":
-                CaesarCipher cCipher = new CaesarCipher("", "", "");
-                cipherText = cCipher.encryptCaesar(cipher); // passes cipher object to the encryption method in the caesar cipher class
+    private void changeWhitespacePolicy() {
+        System.out.println("\nChoose a whitespace policy: ");
+        System.out.println("1 - Keep");
+        System.out.println("2 - Drop");
+        System.out.println("3 - Groups of Five");
+        switch (scan.nextLine()) {
+            case "1":
+                whitespacePolicy = TextNormaliser.Policy.KEEP;
                 break;
-            case "Keyed Caesar":
-                KeyedCaesarCipher kCipher = new KeyedCaesarCipher("", "", "");
-                cipherText = kCipher.encryptKeyed(cipher); // passes cipher object to the encryption method in the keyed caesar cipher class
+            case "2":
+                whitespacePolicy = TextNormaliser.Policy.DROP;
                 break;
-            case "Vigenere":
-                VigenereCipher vCipher = new VigenereCipher("", "", "");
-                cipherText = vCipher.encryptVigenere(cipher); // passes cipher object to the encryption method in the vigenere cipher class
+            case "3":
+                whitespacePolicy = TextNormaliser.Policy.GROUPS_OF_FIVE;
                 break;
             default:
-                System.err.println("\nError occurred. Incorrect cipher type.");
-                System.out.println();
+                System.err.println("Error occurred. Please enter an option from the list.");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Encrypts the data inside the plain text file using the current selected cipher
+     * Uses the shared engine for the current cipher and key
+     */
+    private void encrypt() {
+        if (prepPlainText == null || prepPlainText.isEmpty()) { // ensures there is plain text data to encrypt
+            System.err.println("\nError occurred. No plain text to encrypt.");
+            System.out.println();
+            return;
+        }
+        try {
+            cipherText = CipherEngine.forKey(currentCipher, key).encrypt(prepPlainText); // large vigenere texts are split across cores
+        } catch (IllegalArgumentException e) {
+            System.err.println("\n" + e.getMessage());
+            System.out.println();
         }
     }
 
@@ -390,6 +537,23 @@ public class CodeBreaker {
             cipherSaveFile = scan.nextLine(); // takes in user input of cipher text file name
             System.out.println();
         } while (cipherSaveFile == null || cipherSaveFile.trim().isEmpty());
+        if (cipherSaveFile.endsWith(PackedCipherFile.EXTENSION)) { // packed at 5 bits per character
+            if (cipherText == null || cipherText.isEmpty()) { // ensures there is cipher text data to pack
+                System.err.println("\nError occurred. No cipher text to save.");
+                System.out.println();
+                return;
+            }
+            try {
+                PackedCipherFile.pack(new ByteArrayInputStream(cipherText.getBytes(StandardCharsets.ISO_8859_1)), Paths.get(cipherSaveFile), currentCipher, key);
+            } catch (IOException e) {
+                System.err.println("\nError occurred. Cannot save cipher text to file.");
+                System.out.println();
+            } catch (IllegalArgumentException e) { // the packed file needs a valid key for its check value
+                System.err.println(e.getMessage());
+                System.out.println();
+            }
+            return;
+        }
         try (FileWriter fw = new FileWriter(cipherSaveFile);
              BufferedWriter bw = new BufferedWriter(fw);
              PrintWriter outfile = new PrintWriter(bw)) {
@@ -424,26 +588,20 @@ public class CodeBreaker {
 
     /**
      * Decrypts the data stored in the cipher text file using the current selected cipher
-     * Calls the class of the relevant cipher
+     * Uses the shared engine for the current cipher and key
      */
     private void decrypt() {
-        Cipher cipher = new Cipher(prepPlainText, cipherText, key);
-        switch (currentCipher) {
-            case "Caesar":
-                CaesarCipher cCipher = new CaesarCipher();
-                prepPlainText = cCipher.decryptCaesar(cipher); // passes the cipher text and the key to the encryption method in the caesar cipher class
-                break;
-            case "Keyed Caesar":
-                KeyedCaesarCipher kCipher = new KeyedCaesarCipher();
-                prepPlainText = kCipher.decryptKeyed(cipher); // passes the prepared plain text, the keyword, and the shift to the encryption method in the keyed caesar cipher class
-                break;
-            case "Vigenere":
-                VigenereCipher vCipher = new VigenereCipher();
-                prepPlainText = vCipher.decryptVigenere(cipher); // passes the key and the prepared plain text to the vigenere cipher class
-                break;
-            default:
-                System.err.println("\nError occurred. Incorrect cipher type.");
-                System.out.println();
+        if (cipherText == null || cipherText.isEmpty()) { // ensures there is cipher text data to decrypt
+            System.err.println("\nError occurred. No cipher text to decrypt.");
+            System.out.println();
+            return;
+        }
+        try {
+            prepPlainText = CipherEngine.forKey(currentCipher, key).decrypt(cipherText); // large vigenere texts are split across cores
+        } catch (IllegalArgumentException e) {
+            System.err.println("\n" + e.getMessage());
+            System.out.println();
+            return;
         }
         try {
             FileWriter writer = new FileWriter(prepPlainTextFile);
@@ -455,6 +613,157 @@ public class CodeBreaker {
         }
     }
 
+    /**
+     * Encrypts or decrypts a whole file without loading it into memory
+     * The text is prepared by the current whitespace policy, processed and written in fixed-size chunks using the current cipher and key
+     * Output is the same as inputting the file, encrypting/decrypting and saving, without the trailing new line
+     *
+     * @param encrypt Boolean - if true then the file is encrypted, else the file is decrypted
+     */
+    private void streamFile(boolean encrypt) {
+        System.out.println("\nEnter file name to read from: ");
+        String inputFile = scan.nextLine();
+        System.out.println("\nEnter file name to write to: ");
+        String outputFile = scan.nextLine();
+        System.out.println();
+        try {
+            long written;
+            if (encrypt && outputFile.endsWith(PackedCipherFile.EXTENSION)) { // encrypted and packed in one pass
+                try (InputStream in = Files.newInputStream(Paths.get(inputFile))) {
+                    written = PackedCipherFile.encrypt(in, Paths.get(outputFile), currentCipher, key, new TextNormaliser(whitespacePolicy)).getLength();
+                }
+            } else if (!encrypt && inputFile.endsWith(PackedCipherFile.EXTENSION)) { // decrypted straight from the packed form
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(outputFile)))) {
+                    written = PackedCipherFile.decrypt(Paths.get(inputFile), key, out);
+                }
+            } else {
+                StreamingCipher streamingCipher = new StreamingCipher(currentCipher, key, encrypt);
+                written = streamingCipher.process(Paths.get(inputFile), Paths.get(outputFile), new TextNormaliser(whitespacePolicy));
+            }
+            System.out.println("Wrote " + written + " bytes to " + outputFile);
+            System.out.println();
+        } catch (IOException e) {
+            System.err.println("Error occurred. Cannot stream file.");
+            System.out.println();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.out.println();
+        }
+    }
+
+    /**
+     * Cracks the current cipher text without the key using the current selected cipher
+     * Outputs the best candidate keys, then sets the key to the best one and saves it
+     */
+    private void crack() {
+        if (cipherText == null || cipherText.isEmpty()) { // ensures there is cipher text data to crack
+            System.err.println("\nError occurred. No cipher text to crack.");
+            System.out.println();
+            return;
+        }
+        String corpus = null;
+        String model = ""; // fingerprint of the English text, Keyed Caesar keys found with another text are not reused
+        if (currentCipher.equals("Keyed Caesar")) {
+            System.out.println("\nEnter file name of English text to score against: ");
+            String corpusFile = scan.nextLine(); // the bigram and quadgram models are built from this file
+            System.out.println();
+            try {
+                byte[] corpusBytes = Files.readAllBytes(Paths.get(corpusFile));
+                corpus = new String(corpusBytes);
+                model = CrackCache.fingerprint(corpusBytes);
+            } catch (IOException e) {
+                System.err.println("Error occurred. Cannot read English text file.");
+                System.out.println();
+                return;
+            }
+        }
+        List<KeyCandidate> candidates = crackCache.get(currentCipher, model, cipherText);
+        if (candidates != null) {
+            System.out.println("\nThis cipher text has been cracked before, using the saved candidate keys.");
+        } else {
+            try {
+                switch (currentCipher) {
+                    case "Caesar":
+                        candidates = CaesarCracker.crack(cipherText);
+                        break;
+                    case "Keyed Caesar":
+                        KeyedCaesarCracker cracker = new KeyedCaesarCracker(cipherText, FrequencyAnalysis.bigramLogProbabilities(corpus), QuadgramScorer.fromCorpus(corpus));
+                        candidates = cracker.crack(Runtime.getRuntime().availableProcessors() * 4, KeyedCaesarCracker.DEFAULT_ITERATIONS, System.nanoTime());
+                        break;
+                    case "Vigenere":
+                        candidates = VigenereCracker.crack(cipherText, VigenereCracker.DEFAULT_MAX_PERIOD);
+                        break;
+                    default:
+                        System.err.println("\nError occurred. Cracking is not supported for the current cipher.");
+                        System.out.println();
+                        return;
+                }
+                crackCache.put(currentCipher, model, cipherText, candidates);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.out.println();
+                return;
+            }
+        }
+        System.out.println("\nEnter word list file to rank the candidates by English words (leave blank to skip): ");
+        String wordListFile = scan.nextLine().trim();
+        if (!wordListFile.isEmpty()) {
+            try {
+                DictionaryScorer dictionary = DictionaryScorer.load(Paths.get(wordListFile));
+                candidates = dictionary.rank(cipherText, candidates, DictionaryScorer.EARLY_EXIT_LETTERS * 4); // scores are now the fraction of letters in words
+            } catch (IOException e) {
+                System.err.println("Error occurred. Cannot read word list file, keeping the frequency ranking.");
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+        System.out.println("\nBest candidate keys: ");
+        for (int i = 0; i < Math.min(5, candidates.size()); i++) {
+            KeyCandidate candidate = candidates.get(i);
+            System.out.printf("%s (score %.2f)%n", candidate.getKey(), candidate.getScore());
+        }
+        key = candidates.get(0).getKey(); // uses the best candidate as the current key
+        saveKeys();
+        System.out.println("\nKey set to: " + key);
+        System.out.println();
+    }
+
+    /**
+     * Cracks the current cipher text using a word or phrase known to be in the message
+     * Outputs the best candidate keys, then sets the key to the best one and saves it
+     */
+    private void cribDrag() {
+        if (cipherText == null || cipherText.isEmpty()) { // ensures there is cipher text data to crack
+            System.err.println("\nError occurred. No cipher text to crack.");
+            System.out.println();
+            return;
+        }
+        System.out.println("\nEnter text known to be in the message: ");
+        String crib = scan.nextLine();
+        List<KeyCandidate> candidates;
+        try {
+            candidates = new CribDragger(cipherText).drag(currentCipher, crib);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.out.println();
+            return;
+        }
+        if (candidates.isEmpty()) {
+            System.err.println("\nError occurred. The text does not fit anywhere in the cipher text.");
+            System.out.println();
+            return;
+        }
+        System.out.println("\nBest candidate keys: ");
+        for (int i = 0; i < Math.min(5, candidates.size()); i++) {
+            KeyCandidate candidate = candidates.get(i);
+            System.out.printf("%s (score %.2f)%n", candidate.getKey(), candidate.getScore());
+        }
+        key = candidates.get(0).getKey(); // uses the best candidate as the current key
+        saveKeys();
+        System.out.println("\nKey set to: " + key);
+        System.out.println();
+    }
+
     /**
      * Displays the current content stored in plain text
      */
@@ -474,14 +783,306 @@ public class CodeBreaker {
         }
     }
 
+    /**
+     * Runs CodeBreaker as a local HTTP service until the process is stopped
+     * Usage: serve [port] [batch window in microseconds] [English corpus file for cracking Keyed Caesar]
+     *
+     * @param args command line arguments, starting with "serve"
+     * @return exit code, 1 if the service could not start and 2 for bad arguments
+     */
+    private static int runService(String[] args) {
+        if (args.length > 4) {
+            System.err.println("Usage: java CodeBreaker serve [port] [batch window microseconds] [English corpus file]");
+            return 2;
+        }
+        try {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : CipherService.DEFAULT_PORT;
+            long batchWindow = args.length > 2 ? Long.parseLong(args[2]) : CipherService.DEFAULT_BATCH_WINDOW_MICROS;
+            double[] bigrams = args.length > 3 ? FrequencyAnalysis.bigramLogProbabilities(Files.readString(Paths.get(args[3]), StandardCharsets.ISO_8859_1)) : null;
+            CipherService service = new CipherService(port, batchWindow, bigrams);
+            service.start();
+            System.out.println("Listening on http://localhost:" + service.getPort() + " (POST /encrypt, /decrypt, /crack, GET /stats)");
+            Thread.currentThread().join(); // the server threads do the work until the process is stopped
+            return 0;
+        } catch (IllegalArgumentException e) { // includes numbers that cannot be parsed
+            System.err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error occurred. Cannot start service: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    /**
+     * Runs a batch without the menu
+     * Arguments: batch encrypt|decrypt caesar|keyed|vigenere key input-directory-or-glob output-directory [max-files-in-flight]
+     *
+     * @param args command line arguments
+     * @return exit code, 0 if every file was processed
+     */
+    private static int runBatch(String[] args) {
+        if (args.length < 6 || args.length > 7 || !(args[1].equals("encrypt") || args[1].equals("decrypt"))) {
+            System.err.println("Usage: java CodeBreaker batch encrypt|decrypt caesar|keyed|vigenere <key> <input directory or glob> <output directory> [max files in flight]");
+            return 2;
+        }
+        String cipherType = cipherTypeArgument(args[2]);
+        if (cipherType == null) {
+            System.err.println("Error occurred. Incorrect cipher type.");
+            return 2;
+        }
+        try {
+            int maxInFlight = args.length == 7 ? Integer.parseInt(args[6]) : BatchProcessor.DEFAULT_MAX_IN_FLIGHT;
+            BatchProcessor batch = new BatchProcessor(cipherType, args[3], args[1].equals("encrypt"), maxInFlight);
+            BatchProcessor.Summary summary = batch.process(BatchProcessor.resolveInputs(args[4]), Paths.get(args[5]));
+            System.out.println(summary);
+            return summary.getFailed() == 0 ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error occurred. Cannot read input files: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    /**
+     * Encrypts or decrypts whatever has been appended to a file since the last run, without the menu
+     * The stream state is kept in a checkpoint file next to the output, so each run only processes the new bytes
+     * Arguments: append encrypt|decrypt caesar|keyed|vigenere key input-file output-file
+     *
+     * @param args command line arguments
+     * @return exit code, 0 if the new bytes were processed
+     */
+    private static int runAppend(String[] args) {
+        if (args.length != 6 || !(args[1].equals("encrypt") || args[1].equals("decrypt"))) {
+            System.err.println("Usage: java CodeBreaker append encrypt|decrypt caesar|keyed|vigenere <key> <input file> <output file>");
+            return 2;
+        }
+        String cipherType = cipherTypeArgument(args[2]);
+        if (cipherType == null) {
+            System.err.println("Error occurred. Incorrect cipher type.");
+            return 2;
+        }
+        boolean encrypt = args[1].equals("encrypt");
+        Path output = Paths.get(args[5]);
+        Path checkpointFile = Paths.get(args[5] + ".checkpoint");
+        try {
+            ResumableCipher stream;
+            if (Files.exists(checkpointFile)) {
+                ResumableCipher.Checkpoint checkpoint = ResumableCipher.Checkpoint.load(checkpointFile);
+                if (!checkpoint.getCipherType().equals(cipherType) || checkpoint.isEncrypt() != encrypt) {
+                    System.err.println("Error occurred. Checkpoint was made for a different cipher or direction.");
+                    return 2;
+                }
+                stream = ResumableCipher.resume(args[3], checkpoint);
+            } else {
+                stream = new ResumableCipher(cipherType, args[3], encrypt, TextNormaliser.Policy.KEEP); // prepared like inputPlainFile
+            }
+            long written = stream.update(Paths.get(args[4]), output);
+            stream.checkpoint().save(checkpointFile);
+            System.out.println("Appended " + written + " bytes, " + stream.getInputOffset() + " bytes of input processed in total.");
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error occurred. Cannot append: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Encrypts or decrypts a byte range from the middle of a prepared file and prints it, without the menu
+     * A letter index is kept next to the file (built on first use), so only the range has to be read
+     * Arguments: slice encrypt|decrypt caesar|keyed|vigenere key file from-byte to-byte
+     *
+     * @param args command line arguments
+     * @return exit code, 0 if the range was printed
+     */
+    private static int runSlice(String[] args) {
+        if (args.length != 7 || !(args[1].equals("encrypt") || args[1].equals("decrypt"))) {
+            System.err.println("Usage: java CodeBreaker slice encrypt|decrypt caesar|keyed|vigenere <key> <file> <from byte> <to byte>");
+            return 2;
+        }
+        String cipherType = cipherTypeArgument(args[2]);
+        if (cipherType == null) {
+            System.err.println("Error occurred. Incorrect cipher type.");
+            return 2;
+        }
+        try {
+            Path file = Paths.get(args[4]);
+            StreamingCipher cipher = new StreamingCipher(cipherType, args[3], args[1].equals("encrypt"));
+            LetterIndex index = cipherType.equals("Vigenere") ? LetterIndex.forFile(file) : null; // only Vigenere needs the key position
+            byte[] range = cipher.processRange(file, Long.parseLong(args[5]), Long.parseLong(args[6]), index);
+            System.out.write(range, 0, range.length);
+            System.out.println();
+            return 0;
+        } catch (IllegalArgumentException e) { // includes numbers that cannot be parsed
+            System.err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error occurred. Cannot read file: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Encrypts or decrypts a file through several ciphers in a single pass, without the menu
+     * The stages are folded into one key when the pipeline is built, so the file is only read once
+     * Arguments: pipeline encrypt|decrypt cipher:key[,cipher:key...] input-file output-file
+     *
+     * @param args command line arguments
+     * @return exit code, 0 if the file was processed
+     */
+    private static int runPipeline(String[] args) {
+        if (args.length != 5 || !(args[1].equals("encrypt") || args[1].equals("decrypt"))) {
+            System.err.println("Usage: java CodeBreaker pipeline encrypt|decrypt <cipher:key>[,<cipher:key>...] <input file> <output file>");
+            return 2;
+        }
+        try {
+            CipherPipeline pipeline = CipherPipeline.parse(args[2]);
+            StreamingCipher cipher = pipeline.streaming(args[1].equals("encrypt"));
+            long written = cipher.process(Paths.get(args[3]), Paths.get(args[4]), new TextNormaliser(TextNormaliser.Policy.KEEP)); // prepared like inputPlainFile
+            System.out.println("Wrote " + written + " bytes through " + pipeline.getStages().length + " stages folded into " + pipeline.getPeriod() + " key columns.");
+            return 0;
+        } catch (IllegalArgumentException e) { // includes keys that cannot be parsed
+            System.err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error occurred. Cannot read or write file: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Prints a statistical profile of a cipher text file, without the menu
+     * Letter counts, index of coincidence, common bigrams and trigrams, the average key column index of coincidence
+     * for each key length and the repeated trigrams, all from one read of the file
+     * Arguments: stats file [max key length]
+     *
+     * @param args command line arguments
+     * @return exit code, 0 if the profile was printed
+     */
+    private static int runStats(String[] args) {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: java CodeBreaker stats <file> [max key length]");
+            return 2;
+        }
+        try {
+            int maxPeriod = args.length == 3 ? Integer.parseInt(args[2]) : VigenereCracker.DEFAULT_MAX_PERIOD;
+            CipherStatistics statistics = CipherStatistics.of(Paths.get(args[1]), maxPeriod);
+            System.out.printf("Bytes: %d, letters: %d, index of coincidence: %.4f%n",
+                    statistics.getLength(), statistics.getLetters(), statistics.getIndexOfCoincidence());
+            long[] histogram = statistics.getHistogram();
+            StringBuilder letters = new StringBuilder("Letters:");
+            for (int letter = 0; letter < 26; letter++) {
+                letters.append(' ').append((char) ('A' + letter)).append('=').append(histogram[letter]);
+            }
+            System.out.println(letters);
+            System.out.println("Common bigrams: " + mostCommon(statistics.getBigrams(), 2, 10));
+            System.out.println("Common trigrams: " + mostCommon(statistics.getTrigrams(), 3, 10));
+            System.out.println("Average key column index of coincidence:");
+            for (int period = 1; period <= maxPeriod; period++) {
+                System.out.printf("  %2d: %.4f%n", period, statistics.averageColumnIndexOfCoincidence(period));
+            }
+            System.out.println("Repeated trigrams (letter positions):");
+            int shown = 0;
+            for (Map.Entry<String, long[]> repeated : statistics.repeatedTrigrams().entrySet()) {
+                if (shown++ == 10) {
+                    break;
+                }
+                System.out.println("  " + repeated.getKey() + " " + Arrays.toString(repeated.getValue()));
+            }
+            return 0;
+        } catch (IllegalArgumentException e) { // includes numbers that cannot be parsed
+            System.err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error occurred. Cannot read file: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Most common n-grams in a table of counts
+     *
+     * @param counts count of every n-gram, indexed in base 26
+     * @param n      letters in each n-gram
+     * @param max    number of n-grams listed
+     * @return n-grams and counts, most common first
+     */
+    private static String mostCommon(long[] counts, int n, int max) {
+        Integer[] order = new Integer[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> Long.compare(counts[second], counts[first]));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(max, counts.length) && counts[order[i]] > 0; i++) {
+            char[] letters = new char[n];
+            for (int position = n - 1, value = order[i]; position >= 0; position--, value /= 26) {
+                letters[position] = (char) ('A' + value % 26);
+            }
+            sb.append(i == 0 ? "" : ", ").append(letters).append('=').append(counts[order[i]]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Cipher type for a command line argument
+     *
+     * @param argument caesar, keyed or vigenere in any case
+     * @return Caesar, Keyed Caesar or Vigenere, or null if the argument is not a cipher type
+     */
+    private static String cipherTypeArgument(String argument) {
+        switch (argument.toLowerCase()) {
+            case "caesar":
+                return "Caesar";
+            case "keyed":
+            case "keyed caesar":
+                return "Keyed Caesar";
+            case "vigenere":
+                return "Vigenere";
+            default:
+                return null;
+        }
+    }
+
     /**
      * Main method, ran when program starts
+     * Starts the menu, or runs a batch, the service, an append, a slice, a pipeline or statistics when the first argument asks for one
      *
-     * @param args
+     * @param args command line arguments
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("batch")) {
+            System.exit(runBatch(args));
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            System.exit(runService(args));
+        }
+        if (args.length > 0 && args[0].equals("append")) {
+            System.exit(runAppend(args));
+        }
+        if (args.length > 0 && args[0].equals("slice")) {
+            System.exit(runSlice(args));
+        }
+        if (args.length > 0 && args[0].equals("pipeline")) {
+            System.exit(runPipeline(args));
+        }
+        if (args.length > 0 && args[0].equals("stats")) {
+            System.exit(runStats(args));
+        }
         CodeBreaker start = new CodeBreaker();
         start.initialise(); // calls initialise() method
         start.menu(); // calls menu() method
+        start.closeKeyStore();
+        start.closeCrackCache();
     }
 }
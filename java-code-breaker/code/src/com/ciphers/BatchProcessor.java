@@ -0,0 +1,251 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is the class for encrypting or decrypting many files without the menu
+ * Each file is prepared and streamed through the cipher on its own thread,
+ * virtual threads when the JDK has them, with a limit on how many files are being read and written at once
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class BatchProcessor {
+    /**
+     * Default number of files read and written at the same time
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    private final String cipherType;
+    private final String key;
+    private final boolean encrypt;
+    private final int maxInFlight;
+
+    /**
+     * Constructor for a batch with one cipher and key
+     *
+     * @param cipherType  Caesar, Keyed Caesar or Vigenere
+     * @param key         Key in the same format as the key files
+     * @param encrypt     Boolean - if true then files are encrypted, else files are decrypted
+     * @param maxInFlight number of files read and written at the same time
+     */
+    public BatchProcessor(String cipherType, String key, boolean encrypt, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Error occurred. Files in flight must be at least 1.");
+        }
+        CompiledKey.compile(cipherType, key); // checks the cipher type and key before any file is touched
+        this.cipherType = cipherType;
+        this.key = key;
+        this.encrypt = encrypt;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Finds the input files for a directory or glob
+     * A directory gives every regular file in it, otherwise the last part of the path is a glob (e.g. logs/*.txt)
+     *
+     * @param input directory or glob
+     * @return matching files, sorted by name
+     * @throws IOException Error thrown
+     */
+    public static List<Path> resolveInputs(String input) throws IOException {
+        Path path = Paths.get(input);
+        Path directory;
+        String glob;
+        if (Files.isDirectory(path)) {
+            directory = path;
+            glob = "*";
+        } else {
+            directory = path.getParent() == null ? Paths.get(".") : path.getParent();
+            glob = path.getFileName().toString();
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Encrypts or decrypts every file into the output directory, keeping the file names
+     *
+     * @param inputs          files to process
+     * @param outputDirectory directory the results are written to, created if it does not exist
+     * @return summary of the batch
+     * @throws IOException          Error thrown
+     * @throws InterruptedException Error thrown
+     */
+    public Summary process(List<Path> inputs, Path outputDirectory) throws IOException, InterruptedException {
+        Path outputPath = outputDirectory.toAbsolutePath().normalize();
+        for (Path input : inputs) {
+            if (outputPath.equals(input.toAbsolutePath().normalize().getParent())) { // files would be overwritten while they are read
+                throw new IllegalArgumentException("Error occurred. Output directory cannot be the input directory.");
+            }
+        }
+        Files.createDirectories(outputDirectory);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong bytesRead = new AtomicLong();
+        AtomicLong bytesWritten = new AtomicLong();
+        long start = System.nanoTime();
+
+        ExecutorService executor = newExecutor(maxInFlight);
+        try {
+            for (Path input : inputs) {
+                executor.execute(() -> {
+                    try {
+                        inFlight.acquire(); // limits open files and buffers, not threads
+                        try {
+                            StreamingCipher streamingCipher = new StreamingCipher(cipherType, key, encrypt);
+                            bytesWritten.addAndGet(streamingCipher.process(input, outputDirectory.resolve(input.getFileName()), true));
+                            bytesRead.addAndGet(Files.size(input));
+                            processed.incrementAndGet();
+                        } finally {
+                            inFlight.release();
+                        }
+                    } catch (IOException e) {
+                        System.err.println("Error occurred. Cannot process " + input + ": " + e.getMessage());
+                        failed.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failed.incrementAndGet();
+                    } catch (RuntimeException e) { // e.g. a malformed path, so one bad file does not vanish from the summary
+                        System.err.println("Error occurred. Cannot process " + input + ": " + e);
+                        failed.incrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // waits for every file to finish
+            }
+        }
+        return new Summary(processed.get(), failed.get(), bytesRead.get(), bytesWritten.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Uses a virtual thread per task when the JDK supports it (Java 21 and later),
+     * otherwise a pool of platform threads
+     * Also used by CipherService for its requests
+     *
+     * @param platformThreads number of platform threads when virtual threads are not available
+     * @return executor for the tasks
+     */
+    static ExecutorService newExecutor(int platformThreads) {
+        try {
+            Method virtualExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtualExecutor.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(platformThreads);
+        }
+    }
+
+    /**
+     * This is the class for the result of a batch
+     */
+    public static final class Summary {
+        private final int files;
+        private final int failed;
+        private final long bytesRead;
+        private final long bytesWritten;
+        private final long elapsedNanos;
+
+        /**
+         * Constructor for a batch summary
+         *
+         * @param files        number of files processed
+         * @param failed       number of files that could not be processed
+         * @param bytesRead    number of bytes read
+         * @param bytesWritten number of bytes written
+         * @param elapsedNanos time taken in nanoseconds
+         */
+        Summary(int files, int failed, long bytesRead, long bytesWritten, long elapsedNanos) {
+            this.files = files;
+            this.failed = failed;
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Getter for the number of files processed
+         *
+         * @return number of files processed
+         */
+        public int getFiles() {
+            return files;
+        }
+
+        /**
+         * Getter for the number of files that could not be processed
+         *
+         * @return number of files that could not be processed
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * Getter for the number of bytes read
+         *
+         * @return number of bytes read
+         */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * Getter for the number of bytes written
+         *
+         * @return number of bytes written
+         */
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        /**
+         * Getter for the time taken in nanoseconds
+         *
+         * @return time taken in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Throughput of the batch in megabytes read per second
+         *
+         * @return MB/s
+         */
+        public double getMegabytesPerSecond() {
+            double seconds = elapsedNanos / 1e9;
+            return seconds == 0 ? 0 : bytesRead / 1e6 / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Files: %d (%d failed)%nBytes: %d read, %d written%nElapsed: %.3f s%nThroughput: %.2f MB/s",
+                    files, failed, bytesRead, bytesWritten, elapsedNanos / 1e9, getMegabytesPerSecond());
+        }
+    }
+}
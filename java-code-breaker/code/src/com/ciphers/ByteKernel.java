@@ -0,0 +1,51 @@
+package com.ciphers;
+
+/**
+ * This is the interface for the byte-level encryption loops used by the streaming and channel paths
+ * A Vector API implementation is used when the jdk.incubator.vector module is present,
+ * otherwise the scalar loops are used
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+interface ByteKernel {
+
+    /**
+     * Returns the kernel chosen for this JVM
+     *
+     * @return vector kernel if available, else the scalar kernel
+     */
+    static ByteKernel get() {
+        return ByteKernels.KERNEL;
+    }
+
+    /**
+     * Substitutes every byte in place through a 256-entry table
+     *
+     * @param buffer bytes to substitute
+     * @param from   index of the first byte
+     * @param to     index after the last byte
+     * @param table  output for every byte value, indexed by unsigned byte
+     */
+    void substitute(byte[] buffer, int from, int to, byte[] table);
+
+    /**
+     * Shifts the letters A-Z in place by the shift of their key column
+     * Any other byte is left unchanged and does not advance the key column
+     *
+     * @param buffer bytes to shift
+     * @param from   index of the first byte
+     * @param to     index after the last byte
+     * @param shifts shift 0-25 for each key column, already reversed for decryption
+     * @param column key column of the first letter
+     * @return number of letters shifted
+     */
+    int vigenere(byte[] buffer, int from, int to, byte[] shifts, int column);
+
+    /**
+     * Name of the kernel, for logging
+     *
+     * @return kernel name
+     */
+    String name();
+}
@@ -0,0 +1,72 @@
+package com.ciphers;
+
+/**
+ * This is the class that picks the byte kernel when it is first used
+ * The vector kernel is compiled separately (code/vector) because it needs --add-modules jdk.incubator.vector,
+ * so it is loaded by name and any failure falls back to the scalar kernel
+ * Setting -Dcom.ciphers.vector=false forces the scalar kernel
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+final class ByteKernels {
+    static final ByteKernel KERNEL_SCALAR = new Scalar();
+    static final ByteKernel KERNEL = select();
+
+    private ByteKernels() {
+    }
+
+    /**
+     * Loads the vector kernel if the module and class are present and the CPU has wide enough vectors
+     *
+     * @return kernel to use
+     */
+    private static ByteKernel select() {
+        if (!Boolean.parseBoolean(System.getProperty("com.ciphers.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return KERNEL_SCALAR;
+        }
+        try {
+            ByteKernel vector = (ByteKernel) Class.forName("com.ciphers.VectorByteKernel").getDeclaredConstructor().newInstance();
+            return vector.name() != null ? vector : KERNEL_SCALAR; // name is null when the preferred vectors are too narrow
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return KERNEL_SCALAR;
+        }
+    }
+
+    /**
+     * This is the scalar kernel, one byte at a time
+     */
+    static final class Scalar implements ByteKernel {
+
+        @Override
+        public void substitute(byte[] buffer, int from, int to, byte[] table) {
+            for (int i = from; i < to; i++) {
+                buffer[i] = table[buffer[i] & 0xFF];
+            }
+        }
+
+        @Override
+        public int vigenere(byte[] buffer, int from, int to, byte[] shifts, int column) {
+            int keywordLength = shifts.length;
+            int letters = 0;
+            for (int i = from; i < to; i++) {
+                int letter = buffer[i] - 'A';
+                if (letter >= 0 && letter < 26) {
+                    int shifted = letter + shifts[column];
+                    buffer[i] = (byte) ((shifted >= 26 ? shifted - 26 : shifted) + 'A');
+                    if (++column == keywordLength) {
+                        column = 0;
+                    }
+                    letters++;
+                }
+            }
+            return letters;
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.ciphers;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
 /**
  * This is the class for a Caesar Cipher
  * It allows for encryption of plain text
@@ -10,6 +16,8 @@ package com.ciphers;
  * @version 3.0, 10th April 2023
  */
 public class CaesarCipher extends Cipher {
+    private static final long MAP_WINDOW = 64L * 1024 * 1024; // bytes of the input file mapped at a time
+    private static final int BUFFER_SIZE = 256 * 1024; // bytes shifted and written at a time
 
     /**
      * Default constructor for the Caesar Cipher
@@ -40,9 +48,7 @@ public class CaesarCipher extends Cipher {
      * @return cipher text output after encryption
      */
     public String encryptCaesar(Cipher cipher) {
-        String keyString = cipher.getKey();
-        int key = Integer.parseInt(keyString);
-        String cipherText = shiftText(cipher.getPlaintext(), key, true);
+        String cipherText = CipherEngine.forKey("Caesar", cipher.getKey()).encrypt(cipher.getPlaintext());
         setCiphertext(cipherText);
         return getCiphertext();
     }
@@ -54,31 +60,95 @@ public class CaesarCipher extends Cipher {
      * @return plain text output after decryption
      */
     public String decryptCaesar(Cipher cipher) {
-        String keyString = cipher.getKey();
-        int key = Integer.parseInt(keyString);
-        key = -key; // converts key to negative number
-        String plainText = shiftText(cipher.getCiphertext(), key, true);
+        String plainText = CipherEngine.forKey("Caesar", cipher.getKey()).decrypt(cipher.getCiphertext());
         setPlaintext(plainText);
         return getPlaintext();
     }
 
     /**
-     * Iterates through each character in the text
-     * Calls the shiftCharacter method for each character to shift it by specified key
+     * Encrypts a file channel straight into an output channel
+     * The input is memory-mapped and shifted byte by byte through a lookup table,
+     * without decoding it into a String or allocating per character
      *
-     * @param text    Either plain text or cipher text to be encrypted/decrypted
-     * @param key     Numeric shift
-     * @param encrypt Boolean - if true then algorithm encrypts, else algorithm decrypts
-     * @return result of algorithm after encryption/decryption has been applied to text
+     * @param in  channel of prepared plain text
+     * @param out channel the cipher text is written to
+     * @param key Numeric shift
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    public static long encryptChannel(FileChannel in, WritableByteChannel out, int key) throws IOException {
+        return shiftChannel(in, out, CompiledKey.compile("Caesar", Integer.toString(key)).table(true));
+    }
+
+    /**
+     * Decrypts a file channel straight into an output channel
+     *
+     * @param in  channel of cipher text
+     * @param out channel the plain text is written to
+     * @param key Numeric shift
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    public static long decryptChannel(FileChannel in, WritableByteChannel out, int key) throws IOException {
+        return shiftChannel(in, out, CompiledKey.compile("Caesar", Integer.toString(key)).table(false));
+    }
+
+    /**
+     * Maps the input channel a window at a time, shifts each block through the table and writes it out
+     * One buffer is reused for the whole file
+     * Also used by StreamingCipher for prepared files under any substitution table
+     *
+     * @param in    channel of plain text or cipher text
+     * @param out   channel the result is written to
+     * @param table lookup table from the compiled key
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    static long shiftChannel(FileChannel in, WritableByteChannel out, byte[] table) throws IOException {
+        byte[] block = new byte[BUFFER_SIZE];
+        ByteBuffer outBuffer = ByteBuffer.wrap(block);
+        long size = in.size();
+        for (long position = 0; position < size; position += MAP_WINDOW) {
+            MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW, size - position));
+            while (window.hasRemaining()) {
+                int length = Math.min(block.length, window.remaining());
+                window.get(block, 0, length);
+                shiftBytes(block, 0, length, table);
+                outBuffer.clear().limit(length);
+                while (outBuffer.hasRemaining()) {
+                    out.write(outBuffer);
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Shifts a block of single-byte characters in place
+     *
+     * @param bytes  block of text
+     * @param offset index of the first byte to shift
+     * @param length number of bytes to shift
+     * @param table  lookup table from the compiled key
+     */
+    private static void shiftBytes(byte[] bytes, int offset, int length, byte[] table) {
+        ByteKernel.get().substitute(bytes, offset, offset + length, table);
+    }
+
+    /**
+     * Builds a 256-entry lookup table giving the shifted value of every single-byte character
+     * Filled from shiftCharacter so the table always agrees with the character path
+     * Called once per key by CompiledKey
+     *
+     * @param key Numeric shift, negative when decrypting
+     * @return lookup table indexed by unsigned byte value
      */
-    private static String shiftText(String text, int key, boolean encrypt) {
-        StringBuilder result = new StringBuilder();
-        for (int i = 0; i < text.length(); i++) {
-            char textChar = text.charAt(i);
-            char outputChar = shiftCharacter(textChar, key, encrypt);
-            result.append(outputChar);
+    static byte[] shiftTable(int key) {
+        byte[] table = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            table[i] = (byte) shiftCharacter((char) i, key, true);
         }
-        return result.toString();
+        return table;
     }
 
     /**
@@ -90,7 +160,7 @@ public class CaesarCipher extends Cipher {
      * @param encrypt  Boolean - if true then algorithm encrypts, else algorithm decrypts
      * @return result of algorithm after encryption/decryption has been applied to text
      */
-    private static char shiftCharacter(char textChar, int key, boolean encrypt) {
+    static char shiftCharacter(char textChar, int key, boolean encrypt) {
         if (Character.isLetter(textChar)) {
             int alphabetSize = 26;
             int startChar = 'A';
@@ -0,0 +1,60 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This is the class for cracking Caesar Cipher text without the key
+ * Builds one letter histogram of the cipher text and scores all 26 shifts
+ * by rotating the histogram, so the text is only read once
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class CaesarCracker {
+
+    private CaesarCracker() {
+    }
+
+    /**
+     * Ranks every Caesar key for the cipher text
+     *
+     * @param ciphertext Cipher text to be cracked
+     * @return 26 candidate keys, best (lowest chi-squared) first
+     */
+    public static List<KeyCandidate> crack(CharSequence ciphertext) {
+        return rank(FrequencyAnalysis.histogram(ciphertext));
+    }
+
+    /**
+     * Ranks every Caesar key for a cipher text file, reading the file once
+     *
+     * @param ciphertextFile file of cipher text to be cracked
+     * @return 26 candidate keys, best (lowest chi-squared) first
+     * @throws IOException Error thrown
+     */
+    public static List<KeyCandidate> crack(Path ciphertextFile) throws IOException {
+        return rank(FrequencyAnalysis.histogram(ciphertextFile));
+    }
+
+    /**
+     * Scores all 26 shifts against a letter histogram of the cipher text
+     *
+     * @param counts 26 letter counts of the cipher text
+     * @return 26 candidate keys, best (lowest chi-squared) first
+     */
+    public static List<KeyCandidate> rank(long[] counts) {
+        if (FrequencyAnalysis.total(counts) == 0) {
+            throw new IllegalArgumentException("Error occurred. Cipher text contains no letters.");
+        }
+        List<KeyCandidate> candidates = new ArrayList<>(26);
+        for (int shift = 0; shift < 26; shift++) {
+            candidates.add(new KeyCandidate("Caesar", Integer.toString(shift), FrequencyAnalysis.chiSquared(counts, shift)));
+        }
+        candidates.sort(Comparator.comparingDouble(KeyCandidate::getScore));
+        return candidates;
+    }
+}
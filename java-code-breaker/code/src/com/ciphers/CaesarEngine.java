@@ -0,0 +1,51 @@
+package com.ciphers;
+
+/**
+ * This is the engine for a Caesar Cipher
+ * Single-byte characters are shifted through the compiled key's lookup table,
+ * anything else is shifted the same way as CaesarCipher.shiftCharacter
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+final class CaesarEngine implements CipherEngine {
+    private final CompiledKey compiled;
+
+    /**
+     * Constructor for the engine
+     *
+     * @param compiled compiled caesar key
+     */
+    CaesarEngine(CompiledKey compiled) {
+        this.compiled = compiled;
+    }
+
+    @Override
+    public String getCipherType() {
+        return "Caesar";
+    }
+
+    @Override
+    public String getKey() {
+        return compiled.getKey();
+    }
+
+    @Override
+    public int process(CharSequence in, int from, int to, char[] out, int outOffset, int keyPosition, boolean encrypt) {
+        byte[] table = compiled.table(encrypt);
+        int shift = compiled.shift(0);
+        for (int i = from; i < to; i++) {
+            char textChar = in.charAt(i);
+            out[outOffset++] = textChar < 256 ? (char) (table[textChar] & 0xFF) : CaesarCipher.shiftCharacter(textChar, shift, encrypt);
+        }
+        return keyPosition;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CaesarEngine{");
+        sb.append("key='").append(getKey()).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
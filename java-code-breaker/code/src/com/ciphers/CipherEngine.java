@@ -0,0 +1,150 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * This is the interface for a cipher engine
+ * An engine holds one key and no other state, so a single engine can be shared by every thread
+ * Results are written to a buffer or Appendable supplied by the caller instead of into a Cipher object
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public interface CipherEngine {
+    /**
+     * Number of characters converted at a time when writing to an Appendable
+     */
+    int CHUNK_SIZE = 8192;
+
+    /**
+     * Returns the engine for the cipher type and key
+     * The key is compiled once and cached, so this is cheap to call for every message
+     * Unless metrics are turned off, the engine records every operation in CipherMetrics
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key in the same format as the key files
+     * @return engine for the key
+     */
+    static CipherEngine forKey(String cipherType, String key) {
+        return CompiledKey.compile(cipherType, key).engine();
+    }
+
+    /**
+     * Getter for the cipher type
+     *
+     * @return Caesar, Keyed Caesar or Vigenere
+     */
+    String getCipherType();
+
+    /**
+     * Getter for key
+     *
+     * @return key in the same format as the key files
+     */
+    String getKey();
+
+    /**
+     * Encrypts/decrypts part of the input into the output array
+     * The key position is the Vigenere key column of the first letter, so a text can be processed in pieces
+     *
+     * @param in          plain text or cipher text
+     * @param from        index of the first character to process
+     * @param to          index after the last character to process
+     * @param out         array the result is written to
+     * @param outOffset   index in out of the first result character
+     * @param keyPosition key column of the first letter, always 0 for Caesar and Keyed Caesar
+     * @param encrypt     Boolean - if true then the engine encrypts, else the engine decrypts
+     * @return key column after the last letter
+     */
+    int process(CharSequence in, int from, int to, char[] out, int outOffset, int keyPosition, boolean encrypt);
+
+    /**
+     * Encrypts plain text
+     *
+     * @param plaintext Prepared plain text to be encrypted
+     * @return cipher text
+     */
+    default String encrypt(CharSequence plaintext) {
+        char[] output = new char[plaintext.length()];
+        process(plaintext, 0, output.length, output, 0, 0, true);
+        return new String(output);
+    }
+
+    /**
+     * Decrypts cipher text
+     *
+     * @param ciphertext Cipher text to be decrypted
+     * @return plain text
+     */
+    default String decrypt(CharSequence ciphertext) {
+        char[] output = new char[ciphertext.length()];
+        process(ciphertext, 0, output.length, output, 0, 0, false);
+        return new String(output);
+    }
+
+    /**
+     * Encrypts plain text into a new array
+     *
+     * @param plaintext Prepared plain text to be encrypted
+     * @return cipher text
+     */
+    default char[] encrypt(char[] plaintext) {
+        char[] output = new char[plaintext.length];
+        process(CharBuffer.wrap(plaintext), 0, output.length, output, 0, 0, true);
+        return output;
+    }
+
+    /**
+     * Decrypts cipher text into a new array
+     *
+     * @param ciphertext Cipher text to be decrypted
+     * @return plain text
+     */
+    default char[] decrypt(char[] ciphertext) {
+        char[] output = new char[ciphertext.length];
+        process(CharBuffer.wrap(ciphertext), 0, output.length, output, 0, 0, false);
+        return output;
+    }
+
+    /**
+     * Encrypts plain text into an Appendable, a chunk at a time
+     *
+     * @param plaintext Prepared plain text to be encrypted
+     * @param out       Appendable the cipher text is written to
+     * @throws IOException Error thrown
+     */
+    default void encrypt(CharSequence plaintext, Appendable out) throws IOException {
+        processTo(plaintext, out, true);
+    }
+
+    /**
+     * Decrypts cipher text into an Appendable, a chunk at a time
+     *
+     * @param ciphertext Cipher text to be decrypted
+     * @param out        Appendable the plain text is written to
+     * @throws IOException Error thrown
+     */
+    default void decrypt(CharSequence ciphertext, Appendable out) throws IOException {
+        processTo(ciphertext, out, false);
+    }
+
+    /**
+     * Converts the input a chunk at a time, carrying the key position between chunks
+     *
+     * @param in      plain text or cipher text
+     * @param out     Appendable the result is written to
+     * @param encrypt Boolean - if true then the engine encrypts, else the engine decrypts
+     * @throws IOException Error thrown
+     */
+    private void processTo(CharSequence in, Appendable out, boolean encrypt) throws IOException {
+        char[] chunk = new char[Math.min(CHUNK_SIZE, in.length())];
+        CharBuffer chunkBuffer = CharBuffer.wrap(chunk);
+        int keyPosition = 0;
+        for (int from = 0; from < in.length(); from += chunk.length) {
+            int to = Math.min(from + chunk.length, in.length());
+            keyPosition = process(in, from, to, chunk, 0, keyPosition, encrypt);
+            out.append(chunkBuffer, 0, to - from);
+        }
+    }
+}
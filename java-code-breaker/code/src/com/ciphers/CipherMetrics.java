@@ -0,0 +1,218 @@
+package com.ciphers;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is the class for the throughput and latency metrics of one cipher and direction
+ * There is one instance for each cipher type and direction, registered as an MXBean when first used
+ * Counters are LongAdders so recording is a few uncontended adds,
+ * and latency is timed for every long operation but only a sample of short ones, where the clock reads would cost more than the work
+ * Turned off with -Dcom.ciphers.metrics=false
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class CipherMetrics implements CipherMetricsMXBean {
+    /**
+     * Whether cipher engines are instrumented
+     */
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("com.ciphers.metrics", "true"));
+
+    /**
+     * Operations on at least this many characters or bytes are always timed
+     */
+    public static final int ALWAYS_TIMED_LENGTH = 4096;
+
+    /**
+     * Shorter operations are timed one in this many times
+     */
+    public static final int SAMPLE_RATE = 64;
+
+    /**
+     * Value returned by start when the operation is not being timed
+     */
+    static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final String[] CIPHER_TYPES = {"Caesar", "Keyed Caesar", "Vigenere"};
+    private static final CipherMetrics[] METRICS = register(); // encrypt and decrypt for each cipher type in turn
+
+    private final String cipherType;
+    private final boolean encrypt;
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder timedBytes = new LongAdder(); // bytes in for the timed operations only
+    private final LongAdder timedNanos = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Constructor for the metrics of one cipher and direction
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param encrypt    Boolean - if true then these are the encryption metrics, else the decryption metrics
+     */
+    private CipherMetrics(String cipherType, boolean encrypt) {
+        this.cipherType = cipherType;
+        this.encrypt = encrypt;
+    }
+
+    /**
+     * Returns the metrics for a cipher and direction
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param encrypt    Boolean - if true then the encryption metrics are returned, else the decryption metrics
+     * @return metrics
+     */
+    public static CipherMetrics get(String cipherType, boolean encrypt) {
+        for (int i = 0; i < CIPHER_TYPES.length; i++) {
+            if (CIPHER_TYPES[i].equals(cipherType)) {
+                return METRICS[i * 2 + (encrypt ? 0 : 1)];
+            }
+        }
+        throw new IllegalArgumentException("Error occurred. Incorrect cipher type.");
+    }
+
+    /**
+     * Creates the metrics for every cipher and direction and registers them with the platform MBean server
+     * Metrics are still recorded if registration fails, they just cannot be seen over JMX
+     *
+     * @return metrics, encrypt then decrypt for each cipher type
+     */
+    private static CipherMetrics[] register() {
+        CipherMetrics[] metrics = new CipherMetrics[CIPHER_TYPES.length * 2];
+        for (int i = 0; i < metrics.length; i++) {
+            metrics[i] = new CipherMetrics(CIPHER_TYPES[i / 2], i % 2 == 0);
+            try {
+                ObjectName name = new ObjectName("com.ciphers:type=CipherMetrics,cipher=" + ObjectName.quote(metrics[i].cipherType)
+                        + ",direction=" + metrics[i].getDirection());
+                if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(metrics[i], name);
+                }
+            } catch (JMException | SecurityException e) {
+                System.err.println("Error occurred. Cannot register cipher metrics: " + e.getMessage());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Called before an operation, decides whether it is timed
+     *
+     * @param length number of characters or bytes the operation will read
+     * @return start time, or NOT_TIMED
+     */
+    long start(long length) {
+        if (length >= ALWAYS_TIMED_LENGTH || ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+            return System.nanoTime();
+        }
+        return NOT_TIMED;
+    }
+
+    /**
+     * Called after an operation completes
+     *
+     * @param start  value returned by start
+     * @param in     number of characters or bytes read
+     * @param out    number of characters or bytes written
+     */
+    void record(long start, long in, long out) {
+        operations.increment();
+        bytesIn.add(in);
+        bytesOut.add(out);
+        if (start != NOT_TIMED) {
+            long nanos = System.nanoTime() - start;
+            latency.record(nanos);
+            timedNanos.add(nanos);
+            timedBytes.add(in);
+        }
+    }
+
+    /**
+     * Called when an operation throws an error
+     */
+    void error() {
+        errors.increment();
+    }
+
+    @Override
+    public String getCipherType() {
+        return cipherType;
+    }
+
+    @Override
+    public String getDirection() {
+        return encrypt ? "encrypt" : "decrypt";
+    }
+
+    @Override
+    public long getOperations() {
+        return operations.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    @Override
+    public long getLatencySamples() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getLatencyP50Micros() {
+        return latency.percentileMicros(0.5);
+    }
+
+    @Override
+    public long getLatencyP99Micros() {
+        return latency.percentileMicros(0.99);
+    }
+
+    @Override
+    public double getMegabytesPerSecond() {
+        long nanos = timedNanos.sum();
+        return nanos == 0 ? 0 : timedBytes.sum() / (1024.0 * 1024.0) / (nanos / 1e9);
+    }
+
+    @Override
+    public void reset() {
+        operations.reset();
+        errors.reset();
+        bytesIn.reset();
+        bytesOut.reset();
+        timedBytes.reset();
+        timedNanos.reset();
+        latency.reset();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CipherMetrics{");
+        sb.append("cipherType='").append(cipherType).append('\'');
+        sb.append(", direction=").append(getDirection());
+        sb.append(", operations=").append(getOperations());
+        sb.append(", errors=").append(getErrors());
+        sb.append(", bytesIn=").append(getBytesIn());
+        sb.append(", bytesOut=").append(getBytesOut());
+        sb.append(", p50=").append(getLatencyP50Micros()).append("us");
+        sb.append(", p99=").append(getLatencyP99Micros()).append("us");
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ciphers;
+
+/**
+ * This is the management interface for the metrics of one cipher and direction
+ * Published over JMX as com.ciphers:type=CipherMetrics,cipher=...,direction=...
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public interface CipherMetricsMXBean {
+    /**
+     * Getter for the cipher type
+     *
+     * @return Caesar, Keyed Caesar or Vigenere
+     */
+    String getCipherType();
+
+    /**
+     * Getter for the direction
+     *
+     * @return encrypt or decrypt
+     */
+    String getDirection();
+
+    /**
+     * Getter for the number of completed operations
+     *
+     * @return operations
+     */
+    long getOperations();
+
+    /**
+     * Getter for the number of operations that threw an error
+     *
+     * @return errors
+     */
+    long getErrors();
+
+    /**
+     * Getter for the number of characters or bytes read by completed operations
+     *
+     * @return bytes in
+     */
+    long getBytesIn();
+
+    /**
+     * Getter for the number of characters or bytes written by completed operations
+     *
+     * @return bytes out
+     */
+    long getBytesOut();
+
+    /**
+     * Getter for the number of operations that were timed
+     *
+     * @return latency samples
+     */
+    long getLatencySamples();
+
+    /**
+     * Getter for the median latency of the timed operations
+     *
+     * @return p50 latency in microseconds
+     */
+    long getLatencyP50Micros();
+
+    /**
+     * Getter for the 99th percentile latency of the timed operations
+     *
+     * @return p99 latency in microseconds
+     */
+    long getLatencyP99Micros();
+
+    /**
+     * Getter for the throughput of the timed operations
+     *
+     * @return megabytes read per second while timed operations were running
+     */
+    double getMegabytesPerSecond();
+
+    /**
+     * Sets every counter and the latency histogram back to zero
+     */
+    void reset();
+}
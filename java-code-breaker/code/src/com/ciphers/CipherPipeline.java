@@ -0,0 +1,300 @@
+package com.ciphers;
+
+/**
+ * This is the class for a pipeline of ciphers applied one after another
+ * The stages are folded together when the pipeline is built, so the text is only read once however many stages there are
+ * Caesar and Keyed Caesar stages compose into a single substitution table, and once there is a Vigenere stage
+ * every stage folds into one table per key column, over a period that is the lowest common multiple of the keyword lengths
+ * When every folded column is a plain rotation, such as Caesar and Vigenere stages together, the result is a
+ * Vigenere key with shifted columns and runs through the same byte kernel as a single Vigenere key
+ * Works on prepared text, letters outside A-Z are copied unchanged and do not advance the key column
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class CipherPipeline implements CipherEngine {
+    /**
+     * Cipher type reported by a pipeline
+     */
+    public static final String CIPHER_TYPE = "Pipeline";
+
+    /**
+     * Largest folded period, 26 bytes of table per key column in each direction
+     */
+    public static final int MAX_PERIOD = 1 << 16;
+
+    private final CompiledKey[] stages;
+    private final String description; // stages in the format read by parse
+    private final byte[] encryptTable; // only Caesar and Keyed Caesar stages: output for every single-byte character
+    private final byte[] decryptTable;
+    private final byte[][] encryptColumns; // any Vigenere stage: output for letters A-Z in each folded key column
+    private final byte[][] decryptColumns;
+    private final byte[] encryptShifts; // shift 0-25 for each folded key column, null if a column is not a plain rotation
+    private final byte[] decryptShifts;
+
+    /**
+     * Folds the stages together
+     *
+     * @param stages compiled keys in the order they are applied when encrypting
+     */
+    private CipherPipeline(CompiledKey[] stages) {
+        this.stages = stages;
+        this.description = describe(stages);
+        boolean substitutions = true;
+        long period = 1;
+        for (CompiledKey stage : stages) {
+            if (stage.table(true) == null) {
+                substitutions = false;
+                period = lcm(period, stage.getPeriod());
+                if (period > MAX_PERIOD) {
+                    throw new IllegalArgumentException("Error occurred. Keyword lengths combine to more than " + MAX_PERIOD + " key columns.");
+                }
+            }
+        }
+        if (substitutions) {
+            encryptTable = foldTables(true);
+            decryptTable = foldTables(false);
+            encryptColumns = null;
+            decryptColumns = null;
+            encryptShifts = null;
+            decryptShifts = null;
+        } else {
+            encryptTable = null;
+            decryptTable = null;
+            encryptColumns = foldColumns((int) period, true);
+            decryptColumns = foldColumns((int) period, false);
+            encryptShifts = CompiledKey.rotations(encryptColumns);
+            decryptShifts = CompiledKey.rotations(decryptColumns);
+        }
+    }
+
+    /**
+     * Builds a pipeline from compiled keys
+     *
+     * @param stages compiled keys in the order they are applied when encrypting, decrypting applies them in reverse
+     * @return pipeline
+     */
+    public static CipherPipeline of(CompiledKey... stages) {
+        if (stages == null || stages.length == 0) {
+            throw new IllegalArgumentException("Error occurred. Pipeline needs at least one stage.");
+        }
+        for (CompiledKey stage : stages) {
+            if (stage == null) {
+                throw new IllegalArgumentException("Error occurred. Pipeline stage cannot be empty.");
+            }
+        }
+        return new CipherPipeline(stages.clone());
+    }
+
+    /**
+     * Builds a pipeline from a list of stages such as caesar:3,vigenere:LEMON
+     * Each stage is a cipher type (caesar, keyed or vigenere in any case, or the full name) and a key separated by a colon
+     *
+     * @param specification stages separated by commas, in the order they are applied when encrypting
+     * @return pipeline
+     */
+    public static CipherPipeline parse(String specification) {
+        if (specification == null || specification.isEmpty()) {
+            throw new IllegalArgumentException("Error occurred. Pipeline needs at least one stage.");
+        }
+        String[] parts = specification.split(",");
+        CompiledKey[] stages = new CompiledKey[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            int colon = parts[i].indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Error occurred. Pipeline stage must be cipher:key, found '" + parts[i] + "'.");
+            }
+            stages[i] = CompiledKey.compile(cipherType(parts[i].substring(0, colon).trim()), parts[i].substring(colon + 1).trim());
+        }
+        return new CipherPipeline(stages);
+    }
+
+    @Override
+    public String getCipherType() {
+        return CIPHER_TYPE;
+    }
+
+    /**
+     * Getter for key
+     *
+     * @return stages in the format read by parse, such as Caesar:3,Vigenere:LEMON
+     */
+    @Override
+    public String getKey() {
+        return description;
+    }
+
+    /**
+     * Getter for the stages
+     *
+     * @return compiled keys in the order they are applied when encrypting
+     */
+    public CompiledKey[] getStages() {
+        return stages.clone();
+    }
+
+    /**
+     * Getter for the folded key length
+     *
+     * @return number of folded key columns, 1 if there are only Caesar and Keyed Caesar stages
+     */
+    public int getPeriod() {
+        return encryptColumns == null ? 1 : encryptColumns.length;
+    }
+
+    /**
+     * Getter for whether the pipeline folded into a Vigenere key with shifted columns
+     *
+     * @return true if every folded key column is a plain rotation of A-Z
+     */
+    public boolean isRotation() {
+        return encryptShifts != null;
+    }
+
+    @Override
+    public int process(CharSequence in, int from, int to, char[] out, int outOffset, int keyPosition, boolean encrypt) {
+        if (encryptTable != null) {
+            byte[] table = encrypt ? encryptTable : decryptTable;
+            for (int i = from; i < to; i++) {
+                char textChar = in.charAt(i);
+                out[outOffset++] = textChar < 256 ? (char) (table[textChar] & 0xFF) : textChar;
+            }
+            return keyPosition;
+        }
+        byte[][] columns = encrypt ? encryptColumns : decryptColumns;
+        int period = columns.length;
+        int column = keyPosition;
+        for (int i = from; i < to; i++) {
+            char textChar = in.charAt(i);
+            if (textChar >= 'A' && textChar <= 'Z') {
+                out[outOffset++] = (char) columns[column][textChar - 'A'];
+                if (++column == period) {
+                    column = 0;
+                }
+            } else {
+                out[outOffset++] = textChar;
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Streams text through every stage in a single pass
+     *
+     * @param encrypt Boolean - if true then stream encrypts, else stream decrypts
+     * @return stream for the folded pipeline, its key position counts the letters processed
+     */
+    public StreamingCipher streaming(boolean encrypt) {
+        return new StreamingCipher(CIPHER_TYPE, encrypt, encrypt ? encryptTable : decryptTable,
+                encrypt ? encryptColumns : decryptColumns, encrypt ? encryptShifts : decryptShifts);
+    }
+
+    /**
+     * Composes the substitution tables of every stage
+     * Encrypting applies the stages in order, decrypting applies their inverses in reverse order
+     *
+     * @param encrypt Boolean - if true then the encryption table is built, else the decryption table
+     * @return 256-entry table
+     */
+    private byte[] foldTables(boolean encrypt) {
+        byte[] folded = new byte[256];
+        for (int b = 0; b < 256; b++) {
+            int value = b;
+            for (int s = 0; s < stages.length; s++) {
+                CompiledKey stage = stages[encrypt ? s : stages.length - 1 - s];
+                value = stage.table(encrypt)[value] & 0xFF;
+            }
+            folded[b] = (byte) value;
+        }
+        return folded;
+    }
+
+    /**
+     * Composes every stage into one table per key column
+     * Key column c of the fold uses column c modulo the keyword length of each Vigenere stage
+     *
+     * @param period  lowest common multiple of the keyword lengths
+     * @param encrypt Boolean - if true then the encryption tables are built, else the decryption tables
+     * @return one 26-entry table per folded key column
+     */
+    private byte[][] foldColumns(int period, boolean encrypt) {
+        byte[][] folded = new byte[period][26];
+        for (int column = 0; column < period; column++) {
+            for (int letter = 0; letter < 26; letter++) {
+                int value = 'A' + letter;
+                for (int s = 0; s < stages.length; s++) {
+                    CompiledKey stage = stages[encrypt ? s : stages.length - 1 - s];
+                    byte[] table = stage.table(encrypt);
+                    value = table != null ? table[value] & 0xFF : stage.columns(encrypt)[column % stage.getPeriod()][value - 'A'];
+                }
+                folded[column][letter] = (byte) value;
+            }
+        }
+        return folded;
+    }
+
+    /**
+     * Lowest common multiple of two keyword lengths
+     *
+     * @param a first length
+     * @param b second length
+     * @return lowest common multiple
+     */
+    private static long lcm(long a, long b) {
+        long x = a;
+        long y = b;
+        while (y != 0) { // Euclid's algorithm for the greatest common divisor
+            long remainder = x % y;
+            x = y;
+            y = remainder;
+        }
+        return a / x * b;
+    }
+
+    /**
+     * Cipher type for the name of a stage
+     *
+     * @param name caesar, keyed or vigenere in any case, or the full cipher type
+     * @return Caesar, Keyed Caesar or Vigenere
+     */
+    private static String cipherType(String name) {
+        switch (name.toLowerCase()) {
+            case "caesar":
+                return "Caesar";
+            case "keyed":
+            case "keyed caesar":
+                return "Keyed Caesar";
+            case "vigenere":
+                return "Vigenere";
+            default:
+                throw new IllegalArgumentException("Error occurred. Incorrect cipher type '" + name + "'.");
+        }
+    }
+
+    /**
+     * Describes the stages in the format read by parse
+     *
+     * @param stages compiled keys
+     * @return description
+     */
+    private static String describe(CompiledKey[] stages) {
+        StringBuilder sb = new StringBuilder();
+        for (CompiledKey stage : stages) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(stage.getCipherType()).append(':').append(stage.getKey());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CipherPipeline{");
+        sb.append("stages='").append(description).append('\'');
+        sb.append(", period=").append(getPeriod());
+        sb.append(", rotation=").append(isRotation());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,410 @@
+package com.ciphers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This is the class for running the ciphers as a local HTTP service
+ * Listens on the loopback address only and uses the JDK's built-in HTTP server, so it needs nothing else installed
+ * Each request runs on its own virtual thread when the JDK has them
+ * Small requests for the same cipher, key and direction that arrive close together are run as one batch,
+ * sharing a single compiled key lookup and one output array that every request is processed into
+ *
+ * Endpoints, with the text as the request body:
+ * POST /encrypt?cipher=caesar|keyed|vigenere&amp;key=KEY
+ * POST /decrypt?cipher=caesar|keyed|vigenere&amp;key=KEY
+ * POST /crack?cipher=caesar|keyed|vigenere, one candidate per line as key, tab, score
+ * GET /stats, request counts with p50/p99 latency for each endpoint
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class CipherService implements Closeable {
+    /**
+     * Default port the service listens on
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Requests with more characters than this are run on their own instead of being batched
+     */
+    public static final int SMALL_REQUEST = 4096;
+
+    /**
+     * Most requests run in one batch
+     */
+    public static final int MAX_BATCH = 64;
+
+    /**
+     * Default time the first request in a batch waits for others to join, in microseconds
+     */
+    public static final long DEFAULT_BATCH_WINDOW_MICROS = 100;
+
+    private static final int CANDIDATES = 5; // crack results returned
+    private static final int PLATFORM_THREADS = 200; // requests handled at once when virtual threads are not available
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final double[] bigramLogProbabilities;
+    private final long batchWindowNanos;
+    private final Map<String, Batch> openBatches = new ConcurrentHashMap<>(); // cipher type, key and direction -> batch being filled
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>(); // endpoint -> latencies
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedRequests = new AtomicLong();
+
+    /**
+     * Constructor for the service, it does not accept requests until started
+     *
+     * @param port                   port on the loopback address, 0 for any free port
+     * @param batchWindowMicros      time the first request in a batch waits for others, 0 turns batching off
+     * @param bigramLogProbabilities bigram table for cracking Keyed Caesar, or null to turn that off
+     * @throws IOException Error thrown
+     */
+    public CipherService(int port, long batchWindowMicros, double[] bigramLogProbabilities) throws IOException {
+        if (batchWindowMicros < 0) {
+            throw new IllegalArgumentException("Error occurred. Batch window cannot be negative.");
+        }
+        this.batchWindowNanos = batchWindowMicros * 1000;
+        this.bigramLogProbabilities = bigramLogProbabilities;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = BatchProcessor.newExecutor(PLATFORM_THREADS);
+        server.setExecutor(executor);
+        server.createContext("/encrypt", exchange -> handle(exchange, "encrypt"));
+        server.createContext("/decrypt", exchange -> handle(exchange, "decrypt"));
+        server.createContext("/crack", exchange -> handle(exchange, "crack"));
+        server.createContext("/stats", exchange -> handle(exchange, "stats"));
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Getter for the port, useful when the service was created with port 0
+     *
+     * @return port the service listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, waits up to a second for requests in progress, then stops the threads
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Encrypts or decrypts a text, joining a batch of requests with the same cipher, key and direction if it is small
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key in the same format as the key files
+     * @param encrypt    Boolean - if true then the text is encrypted, else the text is decrypted
+     * @param text       plain text or cipher text
+     * @return result of encryption/decryption
+     */
+    public String process(String cipherType, String key, boolean encrypt, String text) {
+        if (batchWindowNanos == 0 || text.length() > SMALL_REQUEST) {
+            CipherEngine engine = CipherEngine.forKey(cipherType, key);
+            return encrypt ? engine.encrypt(text) : engine.decrypt(text);
+        }
+        String batchKey = cipherType + '\u0000' + key + '\u0000' + encrypt;
+        Job job = new Job(text);
+        Batch[] created = new Batch[1];
+        openBatches.compute(batchKey, (k, open) -> {
+            if (open != null && open.add(job)) {
+                return open;
+            }
+            Batch batch = new Batch(cipherType, key, encrypt); // the request that opens a batch runs it
+            batch.add(job);
+            created[0] = batch;
+            return batch;
+        });
+        if (created[0] != null) {
+            Batch batch = created[0];
+            LockSupport.parkNanos(batchWindowNanos); // lets other requests join
+            openBatches.remove(batchKey, batch);
+            batch.run();
+        }
+        try {
+            return job.result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Error occurred. Request interrupted.");
+        }
+    }
+
+    /**
+     * Finds the most likely keys for a cipher text
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param cipherText cipher text to crack
+     * @return best candidates, best first
+     */
+    public List<KeyCandidate> crack(String cipherType, String cipherText) {
+        switch (cipherType) {
+            case "Caesar":
+                return CaesarCracker.crack(cipherText);
+            case "Keyed Caesar":
+                if (bigramLogProbabilities == null) {
+                    throw new IllegalArgumentException("Error occurred. Service was started without an English corpus for Keyed Caesar.");
+                }
+                return new KeyedCaesarCracker(cipherText, bigramLogProbabilities)
+                        .crack(Runtime.getRuntime().availableProcessors(), KeyedCaesarCracker.DEFAULT_ITERATIONS, System.nanoTime());
+            default:
+                return VigenereCracker.crack(cipherText, VigenereCracker.DEFAULT_MAX_PERIOD);
+        }
+    }
+
+    /**
+     * Request counts and latencies for each endpoint, and how many requests were batched
+     *
+     * @return one line per endpoint
+     */
+    public String stats() {
+        StringBuilder sb = new StringBuilder();
+        List<String> endpoints = new ArrayList<>(latencies.keySet());
+        endpoints.sort(null);
+        for (String endpoint : endpoints) {
+            LatencyHistogram histogram = latencies.get(endpoint);
+            sb.append(endpoint)
+                    .append(" count=").append(histogram.getCount())
+                    .append(" p50_us=").append(histogram.percentileMicros(0.5))
+                    .append(" p99_us=").append(histogram.percentileMicros(0.99))
+                    .append('\n');
+        }
+        long batchCount = batches.get();
+        sb.append("batches=").append(batchCount)
+                .append(" batched_requests=").append(batchedRequests.get())
+                .append(" average_batch=").append(batchCount == 0 ? 0 : String.format("%.2f", (double) batchedRequests.get() / batchCount))
+                .append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Runs one request and writes the response, recording its latency
+     *
+     * @param exchange HTTP request and response
+     * @param endpoint encrypt, decrypt, crack or stats
+     * @throws IOException Error thrown
+     */
+    private void handle(HttpExchange exchange, String endpoint) throws IOException {
+        long start = System.nanoTime();
+        int status = 200;
+        String response;
+        try {
+            boolean isStats = endpoint.equals("stats");
+            if (!exchange.getRequestMethod().equals(isStats ? "GET" : "POST")) {
+                status = 405;
+                response = "Error occurred. Use " + (isStats ? "GET" : "POST") + ".\n";
+            } else if (isStats) {
+                response = stats();
+            } else {
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                String cipherType = cipherType(query.get("cipher"));
+                String text = readBody(exchange.getRequestBody());
+                if (endpoint.equals("crack")) {
+                    StringBuilder sb = new StringBuilder();
+                    List<KeyCandidate> candidates = crack(cipherType, text);
+                    for (int i = 0; i < Math.min(CANDIDATES, candidates.size()); i++) {
+                        sb.append(candidates.get(i).getKey()).append('\t').append(candidates.get(i).getScore()).append('\n');
+                    }
+                    response = sb.toString();
+                } else {
+                    response = process(cipherType, query.get("key"), endpoint.equals("encrypt"), text);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            response = e.getMessage() + "\n";
+        } catch (RuntimeException e) {
+            status = 500;
+            response = "Error occurred. The request could not be processed.\n"; // details stay in the server log
+            System.err.println("Error occurred. Request to /" + endpoint + " failed: " + e);
+            e.printStackTrace();
+        }
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        latencies.computeIfAbsent(endpoint, name -> new LatencyHistogram()).record(System.nanoTime() - start);
+    }
+
+    /**
+     * Reads a whole request body as UTF-8
+     *
+     * @param in request body
+     * @return body text
+     * @throws IOException Error thrown
+     */
+    private static String readBody(InputStream in) throws IOException {
+        try (InputStream body = in) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Splits a query string into its parameters
+     *
+     * @param rawQuery query string from the request, may be null
+     * @return parameter name -> decoded value
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Converts the cipher parameter to a cipher type
+     *
+     * @param name caesar, keyed or vigenere
+     * @return Caesar, Keyed Caesar or Vigenere
+     */
+    private static String cipherType(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Error occurred. Missing cipher parameter.");
+        }
+        switch (name.toLowerCase()) {
+            case "caesar":
+                return "Caesar";
+            case "keyed":
+            case "keyed caesar":
+                return "Keyed Caesar";
+            case "vigenere":
+                return "Vigenere";
+            default:
+                throw new IllegalArgumentException("Error occurred. Incorrect cipher type.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CipherService{");
+        sb.append("address=").append(server.getAddress());
+        sb.append(", batchWindowMicros=").append(batchWindowNanos / 1000);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * One request waiting in a batch
+     */
+    private static final class Job {
+        private final String text;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        Job(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * This is the class for a batch of requests with the same cipher, key and direction
+     * Requests join until the batch is full or closed, then the whole batch runs with one engine and one output array
+     */
+    private final class Batch {
+        private final String cipherType;
+        private final String key;
+        private final boolean encrypt;
+        private final List<Job> jobs = new ArrayList<>();
+        private boolean closed;
+
+        Batch(String cipherType, String key, boolean encrypt) {
+            this.cipherType = cipherType;
+            this.key = key;
+            this.encrypt = encrypt;
+        }
+
+        /**
+         * Adds a request if the batch is still open and not full
+         *
+         * @param job request to add
+         * @return true if the request joined the batch
+         */
+        synchronized boolean add(Job job) {
+            if (closed || jobs.size() == MAX_BATCH) {
+                return false;
+            }
+            jobs.add(job);
+            return true;
+        }
+
+        /**
+         * Closes the batch and runs every request in it
+         */
+        void run() {
+            synchronized (this) {
+                closed = true; // no request can join once the batch has started
+            }
+            batches.incrementAndGet();
+            batchedRequests.addAndGet(jobs.size());
+            CipherEngine engine;
+            try {
+                engine = CipherEngine.forKey(cipherType, key); // one compiled key lookup for the whole batch
+            } catch (RuntimeException e) {
+                for (Job job : jobs) {
+                    job.result.completeExceptionally(e);
+                }
+                return;
+            }
+            int total = 0;
+            for (Job job : jobs) {
+                total += job.text.length();
+            }
+            char[] output = new char[total]; // one array for the batch, each response is still copied out into its own String
+            int offset = 0;
+            for (Job job : jobs) {
+                int length = job.text.length();
+                try {
+                    engine.process(job.text, 0, length, output, offset, 0, encrypt);
+                    job.result.complete(new String(output, offset, length));
+                } catch (RuntimeException e) {
+                    job.result.completeExceptionally(e);
+                }
+                offset += length;
+            }
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This is the class for the statistical profile of a cipher text
+ * Letter counts, index of coincidence, bigram and trigram counts, the index of coincidence of every key column
+ * for key lengths 1 to a maximum, and where each repeated trigram occurs, all from a single read of the text
+ * Files are memory-mapped and split into segments across a ForkJoinPool, each segment counts into its own
+ * int arrays and the segments are merged in order at the end
+ * Only letters are counted (lower case as upper case) and everything else is skipped, so positions are letter
+ * positions, the same as the Vigenere key position
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class CipherStatistics {
+    /**
+     * Number of bytes counted by one task before it stops splitting
+     */
+    public static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Number of positions kept for each repeated trigram
+     */
+    public static final int MAX_POSITIONS = 32;
+
+    /**
+     * Largest key length that key columns can be counted for
+     */
+    public static final int MAX_PERIOD = 100;
+
+    private static final int BIGRAMS = 26 * 26;
+    private static final int TRIGRAMS = 26 * 26 * 26;
+    private static final int BLOCK_SIZE = 64 * 1024; // bytes copied out of the mapped segment at a time
+    private static final int TAIL_SIZE = 256; // bytes read past a segment at a time to finish its last bigram and trigram
+
+    private final int maxPeriod;
+    private final long length; // bytes read
+    private final long letters;
+    private final long[] histogram;
+    private final long[] bigrams; // indexed by a * 26 + b
+    private final long[] trigrams; // indexed by (a * 26 + b) * 26 + c
+    private final long[][] columns; // period -> 26 letter counts for each key column, column * 26 + letter, only for periods over maxPeriod / 2
+    private final long[][] positions; // trigram -> letter positions where it starts, at most MAX_POSITIONS
+
+    /**
+     * Constructor for the merged counts of every segment
+     *
+     * @param maxPeriod largest key length with column counts
+     * @param length    bytes read
+     * @param counts    merged counts
+     */
+    private CipherStatistics(int maxPeriod, long length, Counts counts) {
+        this.maxPeriod = maxPeriod;
+        this.length = length;
+        this.letters = counts.letters;
+        this.histogram = counts.histogram;
+        this.bigrams = counts.bigrams;
+        this.trigrams = counts.trigrams;
+        this.columns = counts.columns;
+        this.positions = counts.positions;
+    }
+
+    /**
+     * Profiles a file on the common ForkJoinPool
+     *
+     * @param file      file of cipher text
+     * @param maxPeriod largest key length to count key columns for
+     * @return statistics
+     * @throws IOException Error thrown
+     */
+    public static CipherStatistics of(Path file, int maxPeriod) throws IOException {
+        return of(file, maxPeriod, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Profiles a file, reading it once through memory-mapped segments
+     *
+     * @param file      file of cipher text
+     * @param maxPeriod largest key length to count key columns for
+     * @param pool      pool the segments are split across
+     * @return statistics
+     * @throws IOException Error thrown
+     */
+    public static CipherStatistics of(Path file, int maxPeriod, ForkJoinPool pool) throws IOException {
+        checkPeriod(maxPeriod);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Source source = (from, to) -> channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            try {
+                return new CipherStatistics(maxPeriod, size, pool.invoke(new SegmentTask(source, size, maxPeriod, 0, size)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Profiles text already in memory, such as the cipher text read by inputCipherFile
+     *
+     * @param text      cipher text
+     * @param maxPeriod largest key length to count key columns for
+     * @return statistics
+     */
+    public static CipherStatistics of(CharSequence text, int maxPeriod) {
+        checkPeriod(maxPeriod);
+        ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.ISO_8859_1)); // letters are all single bytes
+        Source source = (from, to) -> bytes.duplicate().position((int) from).limit((int) to).slice();
+        return new CipherStatistics(maxPeriod, bytes.capacity(),
+                ForkJoinPool.commonPool().invoke(new SegmentTask(source, bytes.capacity(), maxPeriod, 0, bytes.capacity())));
+    }
+
+    /**
+     * Getter for the largest key length with column counts
+     *
+     * @return maxPeriod
+     */
+    public int getMaxPeriod() {
+        return maxPeriod;
+    }
+
+    /**
+     * Getter for the number of bytes read
+     *
+     * @return length
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Getter for the number of letters
+     *
+     * @return letters
+     */
+    public long getLetters() {
+        return letters;
+    }
+
+    /**
+     * Getter for the letter histogram
+     *
+     * @return 26 letter counts
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Index of coincidence of the whole text
+     *
+     * @return around 0.066 for English or a substitution of it, around 0.038 for random letters
+     */
+    public double getIndexOfCoincidence() {
+        return VigenereCracker.indexOfCoincidence(histogram);
+    }
+
+    /**
+     * Getter for the bigram counts
+     *
+     * @return 676 counts, indexed by first letter * 26 + second letter
+     */
+    public long[] getBigrams() {
+        return bigrams.clone();
+    }
+
+    /**
+     * Getter for the trigram counts
+     *
+     * @return 17576 counts, indexed by (first letter * 26 + second letter) * 26 + third letter
+     */
+    public long[] getTrigrams() {
+        return trigrams.clone();
+    }
+
+    /**
+     * Index of coincidence of each key column for one key length
+     *
+     * @param period key length from 1 to the maximum period
+     * @return index of coincidence of each column
+     */
+    public double[] columnIndexOfCoincidence(int period) {
+        if (period < 1 || period > maxPeriod) {
+            throw new IllegalArgumentException("Error occurred. Key length must be from 1 to " + maxPeriod + ".");
+        }
+        int multiple = period * (maxPeriod / period); // a counted key length, every key column of it lies in one column of period
+        long[][] counts = new long[period][26];
+        for (int column = 0; column < multiple; column++) {
+            for (int letter = 0; letter < 26; letter++) {
+                counts[column % period][letter] += columns[multiple][column * 26 + letter];
+            }
+        }
+        double[] indexes = new double[period];
+        for (int column = 0; column < period; column++) {
+            indexes[column] = VigenereCracker.indexOfCoincidence(counts[column]);
+        }
+        return indexes;
+    }
+
+    /**
+     * Average index of coincidence of the key columns for one key length
+     * The right Vigenere key length and its multiples give columns close to English
+     *
+     * @param period key length from 1 to the maximum period
+     * @return average index of coincidence
+     */
+    public double averageColumnIndexOfCoincidence(int period) {
+        double sum = 0;
+        for (double index : columnIndexOfCoincidence(period)) {
+            sum += index;
+        }
+        return sum / period;
+    }
+
+    /**
+     * Positions of every trigram that occurs more than once, most frequent first
+     * The distances between repeats of a trigram tend to be multiples of the Vigenere key length
+     *
+     * @return trigram -> letter positions where it starts, the first MAX_POSITIONS of them
+     */
+    public Map<String, long[]> repeatedTrigrams() {
+        List<Integer> repeated = new ArrayList<>();
+        for (int trigram = 0; trigram < TRIGRAMS; trigram++) {
+            if (trigrams[trigram] > 1) {
+                repeated.add(trigram);
+            }
+        }
+        repeated.sort((first, second) -> Long.compare(trigrams[second], trigrams[first]));
+        Map<String, long[]> result = new LinkedHashMap<>();
+        for (int trigram : repeated) {
+            result.put(trigramName(trigram), positions[trigram].clone());
+        }
+        return result;
+    }
+
+    /**
+     * Letters of a trigram index
+     *
+     * @param trigram (first letter * 26 + second letter) * 26 + third letter
+     * @return three upper case letters
+     */
+    public static String trigramName(int trigram) {
+        return new String(new char[]{(char) ('A' + trigram / 676), (char) ('A' + trigram / 26 % 26), (char) ('A' + trigram % 26)});
+    }
+
+    /**
+     * Checks the largest key length is usable
+     *
+     * @param maxPeriod largest key length to count key columns for
+     */
+    private static void checkPeriod(int maxPeriod) {
+        if (maxPeriod < 1 || maxPeriod > MAX_PERIOD) {
+            throw new IllegalArgumentException("Error occurred. Maximum key length must be from 1 to " + MAX_PERIOD + ".");
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CipherStatistics{");
+        sb.append("length=").append(length);
+        sb.append(", letters=").append(letters);
+        sb.append(", indexOfCoincidence=").append(getIndexOfCoincidence());
+        sb.append(", maxPeriod=").append(maxPeriod);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * This is the interface for reading part of the text
+     */
+    private interface Source {
+        /**
+         * Bytes of the text in a range
+         *
+         * @param from offset of the first byte
+         * @param to   offset after the last byte
+         * @return buffer positioned at the first byte
+         * @throws IOException Error thrown
+         */
+        ByteBuffer region(long from, long to) throws IOException;
+    }
+
+    /**
+     * This is the class for the counts of one segment, or of several neighbouring segments once merged
+     * Positions and key columns are relative to the first letter of the segment until it is merged onto the one before
+     */
+    private static final class Counts {
+        private long letters;
+        private final long[] histogram = new long[26];
+        private final long[] bigrams = new long[BIGRAMS];
+        private final long[] trigrams = new long[TRIGRAMS];
+        private final long[][] columns;
+        private final long[][] positions = new long[TRIGRAMS][];
+
+        /**
+         * Constructor for empty counts
+         *
+         * @param maxPeriod largest key length with column counts
+         */
+        private Counts(int maxPeriod) {
+            columns = new long[maxPeriod + 1][];
+            for (int period = maxPeriod / 2 + 1; period <= maxPeriod; period++) {
+                columns[period] = new long[period * 26];
+            }
+        }
+
+        /**
+         * Largest key length with column counts
+         *
+         * @return maxPeriod
+         */
+        private int maxPeriod() {
+            return columns.length - 1;
+        }
+
+        /**
+         * Adds the counts of the segment straight after this one
+         * Its key columns are rotated and its positions moved on by the number of letters before it
+         *
+         * @param next counts of the following segment
+         */
+        private void append(Counts next) {
+            for (int letter = 0; letter < 26; letter++) {
+                histogram[letter] += next.histogram[letter];
+            }
+            for (int i = 0; i < BIGRAMS; i++) {
+                bigrams[i] += next.bigrams[i];
+            }
+            for (int i = 0; i < TRIGRAMS; i++) {
+                if (next.positions[i] != null) {
+                    positions[i] = appendPositions(positions[i], next.positions[i], letters);
+                }
+                trigrams[i] += next.trigrams[i];
+            }
+            for (int period = maxPeriod() / 2 + 1; period < columns.length; period++) {
+                int shift = (int) (letters % period); // key column the next segment's first letter falls in
+                for (int column = 0; column < period; column++) {
+                    int target = (column + shift) % period;
+                    for (int letter = 0; letter < 26; letter++) {
+                        columns[period][target * 26 + letter] += next.columns[period][column * 26 + letter];
+                    }
+                }
+            }
+            letters += next.letters;
+        }
+
+        /**
+         * Joins two lists of positions, keeping at most MAX_POSITIONS
+         *
+         * @param first  positions from the earlier segment, or null
+         * @param second positions from the later segment
+         * @param offset letters before the later segment
+         * @return joined positions
+         */
+        private static long[] appendPositions(long[] first, long[] second, long offset) {
+            int kept = first == null ? 0 : first.length;
+            long[] joined = Arrays.copyOf(first == null ? new long[0] : first, Math.min(MAX_POSITIONS, kept + second.length));
+            for (int i = kept; i < joined.length; i++) {
+                joined[i] = second[i - kept] + offset;
+            }
+            return joined;
+        }
+    }
+
+    /**
+     * Fork-join task over a range of bytes
+     * Splits until a range is at most SEGMENT_SIZE, counts it into primitive arrays, then merges the halves in order
+     */
+    private static final class SegmentTask extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+
+        private final Source source;
+        private final long size;
+        private final int maxPeriod;
+        private final long from;
+        private final long to;
+
+        /**
+         * Constructor for the task
+         *
+         * @param source    text being profiled
+         * @param size      bytes in the whole text
+         * @param maxPeriod largest key length with column counts
+         * @param from      offset of the first byte
+         * @param to        offset after the last byte
+         */
+        private SegmentTask(Source source, long size, int maxPeriod, long from, long to) {
+            this.source = source;
+            this.size = size;
+            this.maxPeriod = maxPeriod;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (to - from > SEGMENT_SIZE) {
+                long middle = from + (to - from) / 2;
+                SegmentTask right = new SegmentTask(source, size, maxPeriod, middle, to);
+                right.fork();
+                Counts counts = new SegmentTask(source, size, maxPeriod, from, middle).compute();
+                counts.append(right.join());
+                return counts;
+            }
+            try {
+                return count();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Counts one segment
+         * Bigrams and trigrams are counted where they start, so up to two letters after the segment are read to finish them
+         *
+         * @return counts of the segment
+         * @throws IOException Error thrown
+         */
+        private Counts count() throws IOException {
+            int[] histogram = new int[26];
+            int[] bigrams = new int[BIGRAMS];
+            int[] trigrams = new int[TRIGRAMS];
+            // only key lengths over half the maximum are counted, every shorter one divides one of them
+            int lowest = maxPeriod / 2 + 1;
+            int counted = maxPeriod - lowest + 1;
+            int[] start = new int[counted]; // where each counted key length's columns start in the flat array
+            int[] end = new int[counted];
+            int[] at = new int[counted]; // start of the current key column, moved on without a division
+            int width = 0;
+            for (int p = 0; p < counted; p++) {
+                start[p] = width;
+                at[p] = width;
+                width += (lowest + p) * 26;
+                end[p] = width;
+            }
+            int[] columns = new int[width];
+            int[][] positions = new int[TRIGRAMS][];
+
+            ByteBuffer buffer = source.region(from, to);
+            byte[] block = new byte[BLOCK_SIZE];
+            byte[] blockLetters = new byte[BLOCK_SIZE]; // letters of the block, so each key length is counted in its own tight loop
+            int letters = 0;
+            int previous = 0; // the letter before this one
+            int two = 0; // the two letters before this one, as a bigram index
+            while (buffer.hasRemaining()) {
+                int read = Math.min(block.length, buffer.remaining());
+                buffer.get(block, 0, read);
+                int found = 0;
+                for (int i = 0; i < read; i++) {
+                    int letter = (block[i] | 0x20) - 'a'; // folds upper case onto lower case
+                    if (letter < 0 || letter >= 26) {
+                        continue;
+                    }
+                    blockLetters[found++] = (byte) letter;
+                    histogram[letter]++;
+                    if (letters >= 1) {
+                        bigrams[previous * 26 + letter]++;
+                    }
+                    if (letters >= 2) {
+                        int trigram = two * 26 + letter;
+                        int seen = trigrams[trigram]++;
+                        if (seen < MAX_POSITIONS) {
+                            if (positions[trigram] == null) {
+                                positions[trigram] = new int[MAX_POSITIONS];
+                            }
+                            positions[trigram][seen] = letters - 2;
+                        }
+                    }
+                    two = previous * 26 + letter;
+                    previous = letter;
+                    letters++;
+                }
+                for (int p = 0; p < counted; p++) {
+                    int index = at[p];
+                    int periodStart = start[p];
+                    int periodEnd = end[p];
+                    for (int i = 0; i < found; i++) {
+                        columns[index + blockLetters[i]]++;
+                        index += 26;
+                        if (index == periodEnd) {
+                            index = periodStart;
+                        }
+                    }
+                    at[p] = index;
+                }
+            }
+
+            int tail = letters == 0 ? 2 : 0; // letters read after the segment, an empty segment has nothing to finish
+            for (long offset = to; tail < 2 && offset < size; offset += TAIL_SIZE) {
+                ByteBuffer after = source.region(offset, Math.min(size, offset + TAIL_SIZE));
+                while (tail < 2 && after.hasRemaining()) {
+                    int letter = (after.get() | 0x20) - 'a';
+                    if (letter < 0 || letter >= 26) {
+                        continue;
+                    }
+                    if (tail == 0) { // bigram starting on the segment's last letter
+                        bigrams[previous * 26 + letter]++;
+                    }
+                    if (letters + tail >= 2) { // trigram starting on one of the segment's last two letters
+                        int trigram = two * 26 + letter;
+                        int seen = trigrams[trigram]++;
+                        if (seen < MAX_POSITIONS) {
+                            if (positions[trigram] == null) {
+                                positions[trigram] = new int[MAX_POSITIONS];
+                            }
+                            positions[trigram][seen] = letters + tail - 2;
+                        }
+                    }
+                    two = previous * 26 + letter;
+                    previous = letter;
+                    tail++;
+                }
+            }
+            return toCounts(letters, histogram, bigrams, trigrams, columns, positions, lowest);
+        }
+
+        /**
+         * Widens the segment's int counts into the longs used for merging
+         *
+         * @param letters    letters in the segment
+         * @param histogram  letter counts
+         * @param bigrams    bigram counts
+         * @param trigrams   trigram counts
+         * @param columns    key column counts for each counted key length, one after another
+         * @param positions  trigram start positions
+         * @param lowest     shortest counted key length
+         * @return counts of the segment
+         */
+        private Counts toCounts(int letters, int[] histogram, int[] bigrams, int[] trigrams, int[] columns, int[][] positions, int lowest) {
+            Counts counts = new Counts(maxPeriod);
+            counts.letters = letters;
+            for (int letter = 0; letter < 26; letter++) {
+                counts.histogram[letter] = histogram[letter];
+            }
+            for (int i = 0; i < BIGRAMS; i++) {
+                counts.bigrams[i] = bigrams[i];
+            }
+            for (int i = 0; i < TRIGRAMS; i++) {
+                counts.trigrams[i] = trigrams[i];
+                if (positions[i] != null) {
+                    int kept = Math.min(trigrams[i], MAX_POSITIONS);
+                    counts.positions[i] = new long[kept];
+                    for (int j = 0; j < kept; j++) {
+                        counts.positions[i][j] = positions[i][j];
+                    }
+                }
+            }
+            int index = 0;
+            for (int period = lowest; period <= maxPeriod; period++) {
+                for (int i = 0; i < period * 26; i++) {
+                    counts.columns[period][i] = columns[index++];
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.ciphers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This is the class for a compiled key
+ * Holds the substitution tables for one cipher and key so they are only built once
+ * Compiled keys are immutable and kept in a bounded least-recently-used cache,
+ * so repeated operations with the same key skip parsing the key and building the alphabet
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class CompiledKey {
+    /**
+     * Maximum number of compiled keys kept in the cache
+     */
+    public static final int CACHE_SIZE = 512;
+
+    private static final Map<String, CompiledKey> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledKey> eldest) {
+            return size() > CACHE_SIZE; // evicts the least recently used key
+        }
+    };
+
+    private final String cipherType;
+    private final String key;
+    private final byte[] encryptTable; // Caesar and Keyed Caesar: output for every single-byte character
+    private final byte[] decryptTable;
+    private final byte[][] encryptColumns; // Vigenere: output for letters A-Z in each key column
+    private final byte[][] decryptColumns;
+    private final int[] shifts; // Caesar: the numeric shift, Vigenere: shift for each key column
+    private final byte[] encryptShifts; // Vigenere: shift 0-25 for each key column, null if a column is not a plain rotation
+    private final byte[] decryptShifts;
+    private volatile CipherEngine rawEngine; // built on first use, engines are stateless so a race only builds a spare
+    private volatile CipherEngine engine; // rawEngine wrapped in an InstrumentedEngine when metrics are on
+
+    /**
+     * Builds the tables for the cipher type and key
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key in the same format as the key files
+     */
+    private CompiledKey(String cipherType, String key) {
+        this.cipherType = cipherType;
+        this.key = key;
+        switch (cipherType) {
+            case "Caesar":
+                int shift = Integer.parseInt(key);
+                encryptTable = CaesarCipher.shiftTable(shift);
+                decryptTable = CaesarCipher.shiftTable(-shift);
+                encryptColumns = null;
+                decryptColumns = null;
+                shifts = new int[]{shift};
+                encryptShifts = null;
+                decryptShifts = null;
+                break;
+            case "Keyed Caesar":
+                String shiftedKeyedAlphabet = KeyedCaesarCipher.shiftedKeyedAlphabet(key);
+                encryptTable = identityTable();
+                decryptTable = identityTable();
+                for (int i = 0; i < 26; i++) {
+                    byte plainChar = (byte) ('A' + i);
+                    byte keyedChar = (byte) shiftedKeyedAlphabet.charAt(i);
+                    encryptTable['A' + i] = keyedChar; // lower case letters substitute to upper case, as in keyedAlgorithm
+                    encryptTable['a' + i] = keyedChar;
+                    decryptTable[keyedChar] = plainChar;
+                    decryptTable[keyedChar + ('a' - 'A')] = plainChar;
+                }
+                encryptColumns = null;
+                decryptColumns = null;
+                shifts = null;
+                encryptShifts = null;
+                decryptShifts = null;
+                break;
+            case "Vigenere":
+                if (key == null || key.isEmpty()) {
+                    throw new IllegalArgumentException("Error occurred. Keyword cannot be empty.");
+                }
+                String keyword = key.toUpperCase();
+                int keywordLength = keyword.length();
+                shifts = new int[keywordLength];
+                encryptColumns = new byte[keywordLength][26];
+                decryptColumns = new byte[keywordLength][26];
+                for (int column = 0; column < keywordLength; column++) {
+                    shifts[column] = keyword.charAt(column) - 'A';
+                    for (int letter = 0; letter < 26; letter++) {
+                        encryptColumns[column][letter] = (byte) VigenereCipher.shiftLetter('A' + letter, shifts[column], true);
+                        decryptColumns[column][letter] = (byte) VigenereCipher.shiftLetter('A' + letter, shifts[column], false);
+                    }
+                }
+                encryptTable = null;
+                decryptTable = null;
+                encryptShifts = rotations(encryptColumns);
+                decryptShifts = rotations(decryptColumns);
+                break;
+            default:
+                throw new IllegalArgumentException("Error occurred. Incorrect cipher type.");
+        }
+    }
+
+    /**
+     * Returns the compiled key for the cipher type and key, building it if it is not already cached
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key in the same format as the key files
+     * @return compiled key
+     */
+    public static CompiledKey compile(String cipherType, String key) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Error occurred. Key cannot be empty.");
+        }
+        String cacheKey = cipherType + '\u0000' + key;
+        synchronized (CACHE) {
+            CompiledKey compiled = CACHE.get(cacheKey);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+        CompiledKey compiled = new CompiledKey(cipherType, key); // built outside the lock, keys that fail to compile are never cached
+        synchronized (CACHE) {
+            CACHE.putIfAbsent(cacheKey, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Removes every compiled key from the cache
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Short check value for a key, stored in checkpoints and packed files to catch using them with a different key
+     * It is not a secure hash, it only has to tell keys apart
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key to encrypt/decrypt with
+     * @return hexadecimal check value
+     */
+    static String fingerprint(String cipherType, String key) {
+        return Integer.toHexString((cipherType + '\t' + key).hashCode());
+    }
+
+    /**
+     * Getter for the cipher type
+     *
+     * @return cipherType
+     */
+    public String getCipherType() {
+        return cipherType;
+    }
+
+    /**
+     * Getter for key
+     *
+     * @return key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Getter for the Vigenere key length
+     *
+     * @return number of key columns, 1 for Caesar and Keyed Caesar
+     */
+    public int getPeriod() {
+        return encryptColumns == null ? 1 : encryptColumns.length;
+    }
+
+    /**
+     * Engine for this key, shared by every caller of CipherEngine.forKey with the same key
+     * Wrapped to record CipherMetrics unless metrics are turned off
+     *
+     * @return engine
+     */
+    CipherEngine engine() {
+        CipherEngine built = engine;
+        if (built == null) {
+            built = rawEngine();
+            if (CipherMetrics.ENABLED) {
+                built = new InstrumentedEngine(built);
+            }
+            engine = built;
+        }
+        return built;
+    }
+
+    /**
+     * Engine for this key that records no metrics
+     * Used for work the program does on its own behalf, such as trial decryptions while ranking crack candidates,
+     * so only real encryptions and decryptions are counted
+     *
+     * @return engine
+     */
+    CipherEngine rawEngine() {
+        CipherEngine built = rawEngine;
+        if (built == null) {
+            switch (cipherType) {
+                case "Caesar":
+                    built = new CaesarEngine(this);
+                    break;
+                case "Keyed Caesar":
+                    built = new KeyedCaesarEngine(this);
+                    break;
+                default:
+                    built = new VigenereEngine(this);
+            }
+            rawEngine = built;
+        }
+        return built;
+    }
+
+    /**
+     * Substitution table for Caesar and Keyed Caesar, indexed by unsigned byte value
+     * Characters that are not substituted map to themselves
+     *
+     * @param encrypt Boolean - if true then the encryption table is returned, else the decryption table
+     * @return 256-entry table, shared so it must not be modified
+     */
+    byte[] table(boolean encrypt) {
+        return encrypt ? encryptTable : decryptTable;
+    }
+
+    /**
+     * Vigenere tables for each key column, indexed by letter 0-25
+     *
+     * @param encrypt Boolean - if true then the encryption tables are returned, else the decryption tables
+     * @return one 26-entry table per key column, shared so they must not be modified
+     */
+    byte[][] columns(boolean encrypt) {
+        return encrypt ? encryptColumns : decryptColumns;
+    }
+
+    /**
+     * Vigenere shift for one key column, or the Caesar shift for column 0
+     *
+     * @param column index into the keyword
+     * @return shift amount
+     */
+    int shift(int column) {
+        return shifts[column];
+    }
+
+    /**
+     * Vigenere shifts for each key column in the given direction, used by the byte kernels
+     *
+     * @param encrypt Boolean - if true then the encryption shifts are returned, else the decryption shifts
+     * @return shift 0-25 per key column, or null if the keyword has characters outside A-Z
+     */
+    byte[] letterShifts(boolean encrypt) {
+        return encrypt ? encryptShifts : decryptShifts;
+    }
+
+    /**
+     * Finds the shift of each key column, if every column is a rotation of A-Z
+     *
+     * @param columns Vigenere tables for each key column
+     * @return shift 0-25 per key column, or null if any column is not a rotation
+     */
+    static byte[] rotations(byte[][] columns) {
+        byte[] rotations = new byte[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            int rotation = columns[column][0] - 'A';
+            if (rotation < 0 || rotation >= 26) {
+                return null;
+            }
+            for (int letter = 0; letter < 26; letter++) {
+                if (columns[column][letter] != 'A' + (letter + rotation) % 26) {
+                    return null;
+                }
+            }
+            rotations[column] = (byte) rotation;
+        }
+        return rotations;
+    }
+
+    /**
+     * Builds a table mapping every byte to itself
+     *
+     * @return 256-entry identity table
+     */
+    private static byte[] identityTable() {
+        byte[] table = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            table[i] = (byte) i;
+        }
+        return table;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CompiledKey{");
+        sb.append("cipherType='").append(cipherType).append('\'');
+        sb.append(", key='").append(key).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
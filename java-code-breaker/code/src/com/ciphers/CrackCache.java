@@ -0,0 +1,482 @@
+package com.ciphers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is the class for the cache of cracked cipher texts
+ * Results are found by a SHA-256 hash of the cipher type and the letters of the cipher text,
+ * so the same message cracks instantly the next time, even if it was wrapped or spaced differently
+ * Results that depend on a scoring model, such as Keyed Caesar scored against an English text, are also found by
+ * a fingerprint of that model, so a different corpus cracks the cipher text again instead of reusing old keys
+ * The most recently used results are kept in memory, and optionally in a memory-mapped file
+ * of fixed-size slots that survives restarts
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class CrackCache implements Closeable {
+    /**
+     * Default number of results kept in memory
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Default number of slots in a new cache file, about 1.2 MB
+     */
+    public static final int DEFAULT_SLOTS = 4096;
+
+    /**
+     * Number of candidate keys kept for each cipher text
+     */
+    public static final int MAX_CANDIDATES = 5;
+
+    private static final String[] CIPHER_TYPES = {"Caesar", "Keyed Caesar", "Vigenere"};
+    private static final int MAGIC = 0x43424343; // "CBCC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16; // magic, version, slots, spare
+    private static final int DIGEST_SIZE = 32;
+    private static final int KEY_SIZE = 40; // longer keys are kept in memory only
+    private static final int CANDIDATE_SIZE = 8 + 1 + KEY_SIZE; // score, key length, key
+    private static final int SLOT_SIZE = 288; // digest, cipher type, candidate count, candidates, padding
+    private static final int PROBES = 8; // slots tried after the home slot before the home slot is overwritten
+
+    private final Map<String, List<KeyCandidate>> memory;
+    private final FileChannel channel; // null if the cache is memory only
+    private final MappedByteBuffer slots;
+    private final int slotCount;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor for a cache kept in memory only
+     *
+     * @param capacity number of results kept in memory
+     */
+    public CrackCache(int capacity) {
+        this.memory = lruMap(capacity);
+        this.channel = null;
+        this.slots = null;
+        this.slotCount = 0;
+    }
+
+    /**
+     * Constructor for a cache backed by a file, created with the default number of slots if it does not exist
+     *
+     * @param capacity number of results kept in memory
+     * @param file     cache file
+     * @throws IOException Error thrown
+     */
+    public CrackCache(int capacity, Path file) throws IOException {
+        this(capacity, file, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Constructor for a cache backed by a file
+     * An existing file keeps the number of slots it was created with
+     *
+     * @param capacity  number of results kept in memory
+     * @param file      cache file
+     * @param slotCount number of slots if the file has to be created
+     * @throws IOException Error thrown
+     */
+    public CrackCache(int capacity, Path file, int slotCount) throws IOException {
+        if (slotCount <= 0 || (long) slotCount * SLOT_SIZE > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IllegalArgumentException("Error occurred. Invalid number of cache slots.");
+        }
+        this.memory = lruMap(capacity);
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.size() == 0) {
+                header.putInt(MAGIC).putInt(VERSION).putInt(slotCount).putInt(0).flip();
+                channel.write(header, 0);
+            } else {
+                channel.read(header, 0);
+                header.flip();
+                if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("Error occurred. Not a crack cache file: " + file);
+                }
+                slotCount = header.getInt();
+                if (slotCount <= 0 || (long) slotCount * SLOT_SIZE > Integer.MAX_VALUE - HEADER_SIZE) {
+                    throw new IOException("Error occurred. Invalid crack cache file: " + file);
+                }
+            }
+            this.slotCount = slotCount;
+            this.slots = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slotCount * SLOT_SIZE); // grows a new file to full size
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up the candidate keys found for a cipher text, checking memory first and then the file
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param cipherText prepared cipher text
+     * @return candidate keys, best first, or null if the cipher text has not been cracked
+     */
+    public List<KeyCandidate> get(String cipherType, CharSequence cipherText) {
+        return get(cipherType, "", cipherText);
+    }
+
+    /**
+     * Looks up the candidate keys found for a cipher text with a scoring model, checking memory first and then the file
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param model      fingerprint of the scoring model the keys were found with, empty if there is none
+     * @param cipherText prepared cipher text
+     * @return candidate keys, best first, or null if the cipher text has not been cracked with this model
+     */
+    public synchronized List<KeyCandidate> get(String cipherType, String model, CharSequence cipherText) {
+        byte[] digest = digest(cipherType, model, cipherText);
+        String id = hex(digest);
+        List<KeyCandidate> candidates = memory.get(id);
+        if (candidates == null && slots != null) {
+            int slot = findSlot(digest);
+            if (slot >= 0 && slots.get(offset(slot) + DIGEST_SIZE) == cipherIndex(cipherType)) {
+                candidates = readSlot(slot, cipherType);
+                memory.put(id, candidates);
+            }
+        }
+        if (candidates == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return candidates;
+    }
+
+    /**
+     * Stores the candidate keys found for a cipher text
+     * Only the best MAX_CANDIDATES are kept
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param cipherText prepared cipher text
+     * @param candidates candidate keys, best first
+     */
+    public void put(String cipherType, CharSequence cipherText, List<KeyCandidate> candidates) {
+        put(cipherType, "", cipherText, candidates);
+    }
+
+    /**
+     * Stores the candidate keys found for a cipher text with a scoring model
+     * Only the best MAX_CANDIDATES are kept
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param model      fingerprint of the scoring model the keys were found with, empty if there is none
+     * @param cipherText prepared cipher text
+     * @param candidates candidate keys, best first
+     */
+    public synchronized void put(String cipherType, String model, CharSequence cipherText, List<KeyCandidate> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return; // nothing worth remembering
+        }
+        byte[] digest = digest(cipherType, model, cipherText);
+        List<KeyCandidate> kept = Collections.unmodifiableList(new ArrayList<>(candidates.subList(0, Math.min(MAX_CANDIDATES, candidates.size()))));
+        memory.put(hex(digest), kept);
+        if (slots != null) {
+            writeSlot(digest, cipherIndex(cipherType), kept);
+        }
+    }
+
+    /**
+     * Number of results held in memory
+     *
+     * @return size
+     */
+    public synchronized int size() {
+        return memory.size();
+    }
+
+    /**
+     * Getter for the number of lookups that found a result
+     *
+     * @return hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Getter for the number of lookups that did not find a result
+     *
+     * @return misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Writes the cache file to disk and closes it
+     *
+     * @throws IOException Error thrown
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            slots.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Fingerprint of a scoring model, such as the English text Keyed Caesar is cracked against
+     *
+     * @param model bytes the model is built from
+     * @return hexadecimal SHA-256 hash
+     */
+    public static String fingerprint(byte[] model) {
+        return hex(sha256().digest(model));
+    }
+
+    /**
+     * SHA-256 hash of the cipher type, the scoring model and the letters of the cipher text
+     * Whitespace and anything else that is not a letter is left out, as it does not change the key
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param model      fingerprint of the scoring model, empty if there is none
+     * @param cipherText prepared cipher text
+     * @return 32-byte hash
+     */
+    static byte[] digest(String cipherType, String model, CharSequence cipherText) {
+        MessageDigest sha = sha256();
+        sha.update(cipherType.getBytes(StandardCharsets.UTF_8));
+        sha.update((byte) 0);
+        if (!model.isEmpty()) {
+            sha.update(model.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+        }
+        byte[] letters = new byte[8192];
+        int count = 0;
+        for (int i = 0; i < cipherText.length(); i++) {
+            char textChar = cipherText.charAt(i);
+            if (textChar >= 'a' && textChar <= 'z') {
+                textChar -= 'a' - 'A';
+            }
+            if (textChar >= 'A' && textChar <= 'Z') {
+                letters[count++] = (byte) textChar;
+                if (count == letters.length) {
+                    sha.update(letters, 0, count);
+                    count = 0;
+                }
+            }
+        }
+        sha.update(letters, 0, count);
+        return sha.digest();
+    }
+
+    /**
+     * Finds the slot holding a hash
+     *
+     * @param digest 32-byte hash
+     * @return slot index, or -1 if the hash is not in the file
+     */
+    private int findSlot(byte[] digest) {
+        int home = homeSlot(digest);
+        for (int probe = 0; probe <= PROBES; probe++) {
+            int slot = (home + probe) % slotCount;
+            if (digestMatches(slot, digest)) {
+                return slot;
+            }
+            if (isEmpty(slot)) {
+                return -1; // slots are never cleared, so the hash would have been put here
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes a result to the file, into the slot already holding the hash, the first empty slot,
+     * or over the home slot if every slot probed is taken
+     *
+     * @param digest      32-byte hash
+     * @param cipherIndex index of the cipher type
+     * @param candidates  candidate keys to store
+     */
+    private void writeSlot(byte[] digest, int cipherIndex, List<KeyCandidate> candidates) {
+        int home = homeSlot(digest);
+        int target = home;
+        for (int probe = 0; probe <= PROBES; probe++) {
+            int slot = (home + probe) % slotCount;
+            if (digestMatches(slot, digest) || isEmpty(slot)) {
+                target = slot;
+                break;
+            }
+        }
+        int position = offset(target);
+        byte[] record = new byte[SLOT_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.put(digest);
+        buffer.put((byte) cipherIndex);
+        buffer.put((byte) 0); // candidate count, filled in once the stored candidates are known
+        int stored = 0;
+        for (KeyCandidate candidate : candidates) {
+            byte[] key = candidate.getKey().getBytes(StandardCharsets.UTF_8);
+            if (key.length > KEY_SIZE) {
+                continue; // too long for a slot
+            }
+            buffer.putDouble(candidate.getScore());
+            buffer.put((byte) key.length);
+            buffer.put(key);
+            buffer.position(buffer.position() + KEY_SIZE - key.length);
+            stored++;
+        }
+        if (stored == 0) {
+            return; // every key was too long, the result stays in memory only
+        }
+        record[DIGEST_SIZE + 1] = (byte) stored;
+        slots.put(position, record);
+    }
+
+    /**
+     * Reads the candidate keys stored in a slot
+     *
+     * @param slot       slot index
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @return candidate keys, best first
+     */
+    private List<KeyCandidate> readSlot(int slot, String cipherType) {
+        int position = offset(slot) + DIGEST_SIZE + 1;
+        int stored = Math.min(slots.get(position++), MAX_CANDIDATES);
+        List<KeyCandidate> candidates = new ArrayList<>(stored);
+        for (int i = 0; i < stored; i++) {
+            double score = slots.getDouble(position);
+            int length = Math.min(slots.get(position + 8), KEY_SIZE);
+            byte[] key = new byte[length];
+            slots.get(position + 9, key);
+            candidates.add(new KeyCandidate(cipherType, new String(key, StandardCharsets.UTF_8), score));
+            position += CANDIDATE_SIZE;
+        }
+        return Collections.unmodifiableList(candidates);
+    }
+
+    /**
+     * Checks whether a slot holds a hash
+     *
+     * @param slot   slot index
+     * @param digest 32-byte hash
+     * @return true if the slot holds the hash
+     */
+    private boolean digestMatches(int slot, byte[] digest) {
+        byte[] stored = new byte[DIGEST_SIZE];
+        slots.get(offset(slot), stored);
+        return Arrays.equals(stored, digest);
+    }
+
+    /**
+     * Checks whether a slot has never been written, empty slots have no candidates
+     *
+     * @param slot slot index
+     * @return true if the slot is empty
+     */
+    private boolean isEmpty(int slot) {
+        return slots.get(offset(slot) + DIGEST_SIZE + 1) == 0;
+    }
+
+    /**
+     * Slot a hash is stored in when there are no collisions
+     *
+     * @param digest 32-byte hash
+     * @return slot index
+     */
+    private int homeSlot(byte[] digest) {
+        return (int) ((ByteBuffer.wrap(digest).getLong() >>> 1) % slotCount); // the hash is already uniform
+    }
+
+    /**
+     * Byte offset of a slot in the file
+     *
+     * @param slot slot index
+     * @return offset
+     */
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Index of a cipher type, stored in each slot
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @return index
+     */
+    private static int cipherIndex(String cipherType) {
+        for (int i = 0; i < CIPHER_TYPES.length; i++) {
+            if (CIPHER_TYPES[i].equals(cipherType)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Error occurred. Incorrect cipher type.");
+    }
+
+    /**
+     * New SHA-256 digest
+     *
+     * @return message digest
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    /**
+     * Hexadecimal form of a hash, used as the key of the in-memory map
+     *
+     * @param digest 32-byte hash
+     * @return hexadecimal string
+     */
+    private static String hex(byte[] digest) {
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builds a map that evicts its least recently used entry once it holds more than the capacity
+     *
+     * @param capacity number of entries kept
+     * @return map in access order
+     */
+    private static Map<String, List<KeyCandidate>> lruMap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Error occurred. Cache capacity must be greater than 0.");
+        }
+        return new LinkedHashMap<>(Math.min(capacity, 64), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<KeyCandidate>> eldest) {
+                return size() > capacity; // evicts the least recently used result
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CrackCache{");
+        sb.append("size=").append(size());
+        sb.append(", slots=").append(slotCount);
+        sb.append(", hits=").append(getHits());
+        sb.append(", misses=").append(getMisses());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,423 @@
+package com.ciphers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This is the class for cracking cipher text with a known plain text fragment (a crib)
+ * The crib is slid across every letter offset of the cipher text. At each offset the key it implies is worked out:
+ * a Caesar shift, a Vigenere keyword fragment for each key length, or part of a keyed alphabet.
+ * Offsets where the crib contradicts itself are dropped, the rest of the key is filled in from letter frequencies
+ * and the whole text is scored with the chi-squared statistic, so the key has to fit the rest of the text as well
+ * Offsets are split across a ForkJoinPool, each task keeps only its best keys
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class CribDragger {
+    /**
+     * Number of candidate keys returned by default
+     */
+    public static final int DEFAULT_MAX_CANDIDATES = 10;
+
+    private static final int OFFSETS_PER_TASK = 4096; // offsets checked by one task before it stops splitting
+
+    private final byte[] letters; // cipher text letters 0-25, non-letters do not move the key on
+    private final long[] counts;
+    private final ForkJoinPool pool;
+
+    /**
+     * Prepares the cipher text for crib dragging on the common ForkJoinPool
+     *
+     * @param ciphertext Cipher text to be cracked
+     */
+    public CribDragger(CharSequence ciphertext) {
+        this(ciphertext, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prepares the cipher text for crib dragging
+     *
+     * @param ciphertext Cipher text to be cracked
+     * @param pool       pool the offsets are split across
+     */
+    public CribDragger(CharSequence ciphertext, ForkJoinPool pool) {
+        this.letters = VigenereCracker.letters(ciphertext);
+        if (letters.length == 0) {
+            throw new IllegalArgumentException("Error occurred. Cipher text contains no letters.");
+        }
+        this.counts = FrequencyAnalysis.histogram(ciphertext);
+        this.pool = pool;
+    }
+
+    /**
+     * Drags a crib across the cipher text for the chosen cipher
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param crib       plain text known to be in the message, only its letters are used
+     * @return candidate keys in the key file format, best (lowest chi-squared) first
+     */
+    public List<KeyCandidate> drag(String cipherType, CharSequence crib) {
+        switch (cipherType) {
+            case "Caesar":
+                return dragCaesar(crib, DEFAULT_MAX_CANDIDATES);
+            case "Keyed Caesar":
+                return dragKeyed(crib, DEFAULT_MAX_CANDIDATES);
+            case "Vigenere":
+                return dragVigenere(crib, VigenereCracker.DEFAULT_MAX_PERIOD, DEFAULT_MAX_CANDIDATES);
+            default:
+                throw new IllegalArgumentException("Error occurred. Incorrect cipher type.");
+        }
+    }
+
+    /**
+     * Finds the Caesar shifts that turn the crib into the cipher text at some offset
+     *
+     * @param crib          plain text known to be in the message
+     * @param maxCandidates most keys to return
+     * @return candidate shifts, best first
+     */
+    public List<KeyCandidate> dragCaesar(CharSequence crib, int maxCandidates) {
+        byte[] cribLetters = cribLetters(crib);
+        double[] chiSquared = new double[26]; // the score of a shift does not depend on the offset
+        for (int shift = 0; shift < 26; shift++) {
+            chiSquared[shift] = FrequencyAnalysis.chiSquared(counts, shift);
+        }
+        return search(cribLetters, maxCandidates, (offset, found) -> {
+            int shift = Math.floorMod(letters[offset] - cribLetters[0], 26);
+            for (int i = 1; i < cribLetters.length; i++) {
+                if (Math.floorMod(letters[offset + i] - cribLetters[i], 26) != shift) {
+                    return;
+                }
+            }
+            if (found.accepts(chiSquared[shift])) {
+                found.add(Integer.toString(shift), chiSquared[shift]);
+            }
+        }, "Caesar");
+    }
+
+    /**
+     * Finds the Vigenere keywords that turn the crib into the cipher text at some offset, for every key length
+     * A crib shorter than the key length only gives some of the keyword letters,
+     * the other letters are the best Caesar shift for their column
+     *
+     * @param crib          plain text known to be in the message
+     * @param maxPeriod     longest key length to try
+     * @param maxCandidates most keys to return
+     * @return candidate keywords, best first
+     */
+    public List<KeyCandidate> dragVigenere(CharSequence crib, int maxPeriod, int maxCandidates) {
+        byte[] cribLetters = cribLetters(crib);
+        int longest = VigenereCracker.longestPeriod(letters.length, maxPeriod);
+        double[][][] chiSquared = new double[longest + 1][][]; // key length -> column -> shift -> chi-squared
+        int[][] bestShift = new int[longest + 1][];
+        for (int period = 1; period <= longest; period++) {
+            long[][] columns = VigenereCracker.columnCounts(letters, period);
+            chiSquared[period] = new double[period][26];
+            bestShift[period] = new int[period];
+            for (int column = 0; column < period; column++) {
+                for (int shift = 0; shift < 26; shift++) {
+                    chiSquared[period][column][shift] = FrequencyAnalysis.chiSquared(columns[column], shift);
+                    if (chiSquared[period][column][shift] < chiSquared[period][column][bestShift[period][column]]) {
+                        bestShift[period][column] = shift;
+                    }
+                }
+            }
+        }
+        return search(cribLetters, maxCandidates, (offset, found) -> {
+            int[] key = new int[longest];
+            for (int period = 1; period <= longest; period++) {
+                Arrays.fill(key, 0, period, -1);
+                boolean consistent = true;
+                for (int i = 0; i < cribLetters.length && consistent; i++) {
+                    int column = (offset + i) % period;
+                    int shift = Math.floorMod(letters[offset + i] - cribLetters[i], 26);
+                    consistent = key[column] < 0 || key[column] == shift; // the crib wraps onto a column it already set
+                    key[column] = shift;
+                }
+                if (!consistent) {
+                    continue;
+                }
+                double score = 0;
+                for (int column = 0; column < period; column++) {
+                    if (key[column] < 0) {
+                        key[column] = bestShift[period][column];
+                    }
+                    score += chiSquared[period][column][key[column]];
+                }
+                if (!found.accepts(score)) {
+                    continue;
+                }
+                int shortest = shortestPeriod(key, period); // LEMONLEMON is the same key as LEMON
+                if (shortest != period) {
+                    score = 0;
+                    for (int column = 0; column < shortest; column++) {
+                        score += chiSquared[shortest][column][key[column]];
+                    }
+                }
+                char[] keyword = new char[shortest];
+                for (int column = 0; column < shortest; column++) {
+                    keyword[column] = (char) ('A' + key[column]); // a shift of n is the keyword letter n places after A
+                }
+                found.add(new String(keyword), score);
+            }
+        }, "Vigenere");
+    }
+
+    /**
+     * Finds the keyed alphabets that turn the crib into the cipher text at some offset
+     * The crib fixes the cipher letter of each of its plain letters, an offset is dropped if one plain letter
+     * would need two cipher letters or two plain letters the same one
+     * The rest of the alphabet pairs the remaining cipher letters with the remaining plain letters in order of frequency,
+     * so the key is a starting point that KeyedCaesarCracker can improve on
+     *
+     * @param crib          plain text known to be in the message
+     * @param maxCandidates most keys to return
+     * @return candidate keys in the keyed-caesar-key.txt format, best first
+     */
+    public List<KeyCandidate> dragKeyed(CharSequence crib, int maxCandidates) {
+        byte[] cribLetters = cribLetters(crib);
+        Integer[] cipherOrder = new Integer[26];
+        Integer[] englishOrder = new Integer[26];
+        for (int i = 0; i < 26; i++) {
+            cipherOrder[i] = i;
+            englishOrder[i] = i;
+        }
+        Arrays.sort(cipherOrder, Comparator.comparingLong((Integer letter) -> counts[letter]).reversed());
+        Arrays.sort(englishOrder, Comparator.comparingDouble((Integer letter) -> FrequencyAnalysis.englishFrequency(letter)).reversed());
+        return search(cribLetters, maxCandidates, (offset, found) -> {
+            byte[] decryption = new byte[26]; // cipher letter -> plain letter
+            byte[] encryption = new byte[26]; // plain letter -> cipher letter
+            Arrays.fill(decryption, (byte) -1);
+            Arrays.fill(encryption, (byte) -1);
+            for (int i = 0; i < cribLetters.length; i++) {
+                int cipherLetter = letters[offset + i];
+                int plainLetter = cribLetters[i];
+                if (decryption[cipherLetter] < 0 && encryption[plainLetter] < 0) {
+                    decryption[cipherLetter] = (byte) plainLetter;
+                    encryption[plainLetter] = (byte) cipherLetter;
+                } else if (decryption[cipherLetter] != plainLetter) {
+                    return;
+                }
+            }
+            int next = 0;
+            for (int cipherLetter : cipherOrder) { // most common cipher letters take the most common plain letters left
+                if (decryption[cipherLetter] < 0) {
+                    while (encryption[englishOrder[next]] >= 0) {
+                        next++;
+                    }
+                    decryption[cipherLetter] = (byte) (int) englishOrder[next];
+                    encryption[englishOrder[next]] = (byte) cipherLetter;
+                }
+            }
+            long[] plainCounts = new long[26];
+            for (int cipherLetter = 0; cipherLetter < 26; cipherLetter++) {
+                plainCounts[decryption[cipherLetter]] = counts[cipherLetter];
+            }
+            double score = FrequencyAnalysis.chiSquared(plainCounts, 0);
+            if (found.accepts(score)) {
+                found.add(KeyedCaesarCracker.keyFor(encryption), score);
+            }
+        }, "Keyed Caesar");
+    }
+
+    /**
+     * Runs a check at every offset the crib fits at, split across the pool
+     *
+     * @param cribLetters   crib letters 0-25
+     * @param maxCandidates most keys to return
+     * @param check         works out and scores the key at one offset
+     * @param cipherType    cipher type of the keys found
+     * @return candidate keys, best first
+     */
+    private List<KeyCandidate> search(byte[] cribLetters, int maxCandidates, OffsetCheck check, String cipherType) {
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("Error occurred. Number of candidates must be at least 1.");
+        }
+        if (cribLetters.length > letters.length) {
+            throw new IllegalArgumentException("Error occurred. Crib is longer than the cipher text.");
+        }
+        Candidates found = pool.invoke(new DragTask(check, 0, letters.length - cribLetters.length + 1, maxCandidates));
+        return found.toList(cipherType);
+    }
+
+    /**
+     * Letters of the crib as indexes
+     *
+     * @param crib plain text known to be in the message
+     * @return crib letters 0-25
+     */
+    private static byte[] cribLetters(CharSequence crib) {
+        byte[] cribLetters = VigenereCracker.letters(crib);
+        if (cribLetters.length == 0) {
+            throw new IllegalArgumentException("Error occurred. Crib contains no letters.");
+        }
+        return cribLetters;
+    }
+
+    /**
+     * Shortest key length that repeats to give the key
+     *
+     * @param key    shift for each column
+     * @param period key length
+     * @return shortest repeating length, a divisor of the key length
+     */
+    private static int shortestPeriod(int[] key, int period) {
+        for (int shorter = 1; shorter < period; shorter++) {
+            if (period % shorter != 0) {
+                continue;
+            }
+            boolean repeats = true;
+            for (int column = shorter; column < period && repeats; column++) {
+                repeats = key[column] == key[column - shorter];
+            }
+            if (repeats) {
+                return shorter;
+            }
+        }
+        return period;
+    }
+
+    /**
+     * This is the interface for the work done at one offset
+     */
+    private interface OffsetCheck {
+        /**
+         * Works out the key the crib implies at an offset and adds it if it is consistent
+         *
+         * @param offset letter offset of the crib in the cipher text
+         * @param found  best keys found so far by this task
+         */
+        void check(int offset, Candidates found);
+    }
+
+    /**
+     * This is the class for the task that checks a range of offsets, splitting it in half while it is large
+     */
+    private final class DragTask extends RecursiveTask<Candidates> {
+        private static final long serialVersionUID = 1L;
+
+        private final OffsetCheck check;
+        private final int from;
+        private final int to;
+        private final int maxCandidates;
+
+        /**
+         * Constructor for the task
+         *
+         * @param check         work done at each offset
+         * @param from          first offset
+         * @param to            offset after the last one
+         * @param maxCandidates most keys to keep
+         */
+        private DragTask(OffsetCheck check, int from, int to, int maxCandidates) {
+            this.check = check;
+            this.from = from;
+            this.to = to;
+            this.maxCandidates = maxCandidates;
+        }
+
+        @Override
+        protected Candidates compute() {
+            if (to - from <= OFFSETS_PER_TASK) {
+                Candidates found = new Candidates(maxCandidates);
+                for (int offset = from; offset < to; offset++) {
+                    check.check(offset, found);
+                }
+                return found;
+            }
+            int middle = (from + to) >>> 1;
+            DragTask left = new DragTask(check, from, middle, maxCandidates);
+            left.fork();
+            Candidates found = new DragTask(check, middle, to, maxCandidates).compute();
+            found.merge(left.join());
+            return found;
+        }
+    }
+
+    /**
+     * This is the class for the best distinct keys found by a task, lowest score first
+     */
+    private static final class Candidates {
+        private final int limit;
+        private final String[] keys;
+        private final double[] scores;
+        private int size;
+
+        /**
+         * Constructor for an empty list
+         *
+         * @param limit most keys to keep
+         */
+        private Candidates(int limit) {
+            this.limit = limit;
+            this.keys = new String[limit];
+            this.scores = new double[limit];
+        }
+
+        /**
+         * Whether a key with this score could get into the list, checked before the key is built
+         *
+         * @param score chi-squared score
+         * @return true if the list has room or the score beats the worst kept
+         */
+        private boolean accepts(double score) {
+            return size < limit || score < scores[size - 1];
+        }
+
+        /**
+         * Adds a key, keeping the list sorted and each key once
+         *
+         * @param key   key in the key file format
+         * @param score chi-squared score
+         */
+        private void add(String key, double score) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return; // a key always gets the same score, whichever offset found it
+                }
+            }
+            if (!accepts(score)) {
+                return;
+            }
+            int position = Math.min(size, limit - 1);
+            while (position > 0 && scores[position - 1] > score) {
+                keys[position] = keys[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            keys[position] = key;
+            scores[position] = score;
+            size = Math.min(size + 1, limit);
+        }
+
+        /**
+         * Adds every key from another list
+         *
+         * @param other keys found by another task
+         */
+        private void merge(Candidates other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.keys[i], other.scores[i]);
+            }
+        }
+
+        /**
+         * The keys as candidates
+         *
+         * @param cipherType cipher type of the keys
+         * @return candidate keys, best first
+         */
+        private List<KeyCandidate> toList(String cipherType) {
+            List<KeyCandidate> candidates = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                candidates.add(new KeyCandidate(cipherType, keys[i], scores[i]));
+            }
+            return candidates;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.ciphers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This is the class for scoring candidate plain text against a word list
+ * A text scores by the fraction of its letters covered when it is split into dictionary words,
+ * so real English scores close to 1 and a wrong key scores close to 0
+ * The word list is held in a trie built from flat arrays, with the children of each node stored next to each other,
+ * which takes about 6 bytes per node: letter, first child index, child count and a terminal bit (about 12 MB for the 1.9 million nodes of a 500,000 word list, within a 20 MB budget)
+ * The budget is for the finished trie, while it is built the cleaned words are also held as Strings,
+ * so loading a 500,000 word list needs about 70 MB of heap at its peak
+ * Scoring can stop early once enough letters have been read to see that the text is not English
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class DictionaryScorer {
+    /**
+     * Letters read before a text is checked against the early exit threshold
+     */
+    public static final int EARLY_EXIT_LETTERS = 300;
+
+    /**
+     * Coverage below which a candidate is treated as not English
+     */
+    public static final double DEFAULT_THRESHOLD = 0.5;
+
+    private static final int ROOT = 0;
+
+    private final byte[] letters; // letter 0-25 on the edge into each node
+    private final int[] firstChild; // index of the first child of each node, children are contiguous and sorted
+    private final byte[] childCount;
+    private final long[] terminal; // bit set of nodes that end a word
+    private final int wordCount;
+    private final int maxWordLength;
+
+    /**
+     * Builds the trie from a sorted array of distinct upper case words
+     *
+     * @param words sorted distinct words
+     */
+    private DictionaryScorer(String[] words) {
+        int capacity = countNodes(words); // exact, so the node arrays are never grown or trimmed
+        byte[] nodeLetters = new byte[capacity];
+        int[] nodeFirstChild = new int[capacity];
+        byte[] nodeChildCount = new byte[capacity];
+        long[] nodeTerminal = new long[(capacity >> 6) + 1];
+        int nodes = 1;
+        int longest = 0;
+
+        // breadth first over ranges of the sorted words, a node's words are the range sharing its prefix
+        int queueCapacity = 1024; // grows to the widest level of the trie, not the number of words
+        int[] queueNode = new int[queueCapacity];
+        int[] queueFrom = new int[queueCapacity];
+        int[] queueTo = new int[queueCapacity];
+        int[] queueDepth = new int[queueCapacity];
+        int head = 0;
+        int tail = 0;
+        queueFrom[tail] = 0;
+        queueTo[tail] = words.length;
+        tail++;
+        while (head < tail) {
+            int node = queueNode[head];
+            int from = queueFrom[head];
+            int to = queueTo[head];
+            int depth = queueDepth[head];
+            head++;
+            if (from < to && words[from].length() == depth) { // the prefix itself is a word, it sorts first
+                nodeTerminal[node >> 6] |= 1L << node;
+                longest = Math.max(longest, depth);
+                from++;
+            }
+            int children = 0;
+            int first = nodes;
+            while (from < to) {
+                char letter = words[from].charAt(depth);
+                int end = from + 1;
+                while (end < to && words[end].charAt(depth) == letter) {
+                    end++;
+                }
+                if (tail == queueNode.length) {
+                    int grown = queueNode.length * 2;
+                    queueNode = Arrays.copyOf(queueNode, grown);
+                    queueFrom = Arrays.copyOf(queueFrom, grown);
+                    queueTo = Arrays.copyOf(queueTo, grown);
+                    queueDepth = Arrays.copyOf(queueDepth, grown);
+                }
+                nodeLetters[nodes] = (byte) (letter - 'A');
+                queueNode[tail] = nodes;
+                queueFrom[tail] = from;
+                queueTo[tail] = end;
+                queueDepth[tail] = depth + 1;
+                tail++;
+                nodes++;
+                children++;
+                from = end;
+            }
+            nodeFirstChild[node] = first;
+            nodeChildCount[node] = (byte) children;
+            if (head > (queueNode.length >> 1)) { // shifts the queue down so it does not keep growing
+                int remaining = tail - head;
+                System.arraycopy(queueNode, head, queueNode, 0, remaining);
+                System.arraycopy(queueFrom, head, queueFrom, 0, remaining);
+                System.arraycopy(queueTo, head, queueTo, 0, remaining);
+                System.arraycopy(queueDepth, head, queueDepth, 0, remaining);
+                head = 0;
+                tail = remaining;
+            }
+        }
+        this.letters = nodeLetters;
+        this.firstChild = nodeFirstChild;
+        this.childCount = nodeChildCount;
+        this.terminal = nodeTerminal;
+        this.wordCount = words.length;
+        this.maxWordLength = longest;
+    }
+
+    /**
+     * Number of trie nodes for a sorted word list
+     * Each word adds one node for every letter after the prefix it shares with the word before it
+     *
+     * @param words sorted distinct words
+     * @return node count, including the root
+     */
+    private static int countNodes(String[] words) {
+        long nodes = 1;
+        String previous = "";
+        for (String word : words) {
+            int shared = 0;
+            int limit = Math.min(previous.length(), word.length());
+            while (shared < limit && previous.charAt(shared) == word.charAt(shared)) {
+                shared++;
+            }
+            nodes += word.length() - shared;
+            previous = word;
+        }
+        if (nodes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Error occurred. Word list is too large.");
+        }
+        return (int) nodes;
+    }
+
+    /**
+     * Builds a scorer from a list of words
+     * Words are converted to upper case, words with characters other than letters are skipped
+     *
+     * @param words words in any order, duplicates are allowed
+     * @return scorer
+     */
+    public static DictionaryScorer fromWords(Iterable<? extends CharSequence> words) {
+        List<String> cleaned = new ArrayList<>();
+        for (CharSequence word : words) {
+            String upper = clean(word);
+            if (upper != null) {
+                cleaned.add(upper);
+            }
+        }
+        return fromCleaned(cleaned);
+    }
+
+    /**
+     * Builds a scorer from words that are already upper case letters
+     *
+     * @param cleaned upper case words in any order, duplicates are allowed
+     * @return scorer
+     */
+    private static DictionaryScorer fromCleaned(List<String> cleaned) {
+        String[] sorted = cleaned.toArray(new String[0]);
+        cleaned.clear(); // the array now holds the only references to the words
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || !sorted[i].equals(sorted[distinct - 1])) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        if (distinct == 0) {
+            throw new IllegalArgumentException("Error occurred. Word list has no words.");
+        }
+        return new DictionaryScorer(Arrays.copyOf(sorted, distinct));
+    }
+
+    /**
+     * Builds a scorer from a word list file with one word per line
+     * Lines are cleaned as they are read, so the raw lines are never all held at once
+     *
+     * @param file word list
+     * @return scorer
+     * @throws IOException Error thrown
+     */
+    public static DictionaryScorer load(Path file) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) { // any byte decodes, non-ASCII words are skipped
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String upper = clean(line.trim());
+                if (upper != null) {
+                    words.add(upper);
+                }
+            }
+        }
+        return fromCleaned(words);
+    }
+
+    /**
+     * Upper case form of a word, if it is made only of letters A-Z
+     *
+     * @param word word from the list
+     * @return upper case word, or null if it should be skipped
+     */
+    private static String clean(CharSequence word) {
+        if (word.length() == 0) {
+            return null;
+        }
+        char[] upper = new char[word.length()];
+        for (int i = 0; i < upper.length; i++) {
+            char character = word.charAt(i);
+            if (character >= 'a' && character <= 'z') {
+                character -= 'a' - 'A';
+            } else if (character < 'A' || character > 'Z') {
+                return null;
+            }
+            upper[i] = character;
+        }
+        return new String(upper);
+    }
+
+    /**
+     * Getter for the number of distinct words
+     *
+     * @return word count
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Getter for the number of trie nodes
+     *
+     * @return node count
+     */
+    public int getNodeCount() {
+        return letters.length;
+    }
+
+    /**
+     * Whether a word is in the list
+     *
+     * @param word word to look up, any case
+     * @return true if the word is in the list
+     */
+    public boolean contains(CharSequence word) {
+        String upper = clean(word);
+        if (upper == null) {
+            return false;
+        }
+        int node = ROOT;
+        for (int i = 0; i < upper.length() && node >= 0; i++) {
+            node = child(node, upper.charAt(i) - 'A');
+        }
+        return node >= 0 && isWord(node);
+    }
+
+    /**
+     * Fraction of the letters in a text covered by the best split into dictionary words
+     *
+     * @param text candidate plain text
+     * @return coverage from 0 to 1
+     */
+    public double score(CharSequence text) {
+        return score(text, 0);
+    }
+
+    /**
+     * Fraction of the letters in a text covered by the best split into dictionary words
+     * Non-letters always end a word, single letter words only count for A and I
+     * After EARLY_EXIT_LETTERS letters, a text covered less than the threshold stops and returns its coverage so far
+     *
+     * @param text      candidate plain text
+     * @param threshold coverage needed to keep scoring, 0 to always score the whole text
+     * @return coverage from 0 to 1
+     */
+    public double score(CharSequence text, double threshold) {
+        byte[] textLetters = new byte[text.length()];
+        boolean[] boundary = new boolean[text.length() + 1]; // a word cannot run past a non-letter
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            int letter = character >= 'a' && character <= 'z' ? character - 'a' : character - 'A';
+            if (letter >= 0 && letter < 26) {
+                textLetters[count++] = (byte) letter;
+            } else {
+                boundary[count] = true;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        int[] best = new int[count + 1]; // best[i]: most letters covered in the first i letters
+        for (int i = 0; i < count; i++) {
+            if (i == EARLY_EXIT_LETTERS && best[i] < threshold * i) {
+                return (double) best[i] / i;
+            }
+            if (best[i] > best[i + 1]) { // leaves letter i uncovered
+                best[i + 1] = best[i];
+            }
+            int node = ROOT;
+            for (int j = i; j < count && j - i < maxWordLength; j++) {
+                if (j > i && boundary[j]) {
+                    break;
+                }
+                node = child(node, textLetters[j]);
+                if (node < 0) {
+                    break;
+                }
+                int length = j - i + 1;
+                if (isWord(node) && (length > 1 || textLetters[i] == 0 || textLetters[i] == 'I' - 'A')) {
+                    int covered = best[i] + length;
+                    if (covered > best[j + 1]) {
+                        best[j + 1] = covered;
+                    }
+                }
+            }
+        }
+        return (double) best[count] / count;
+    }
+
+    /**
+     * Re-ranks crack candidates by decrypting the cipher text with each key and scoring it against the word list
+     * Only the first maxLetters characters are decrypted, which is plenty to tell English apart
+     *
+     * @param cipherText cipher text the candidates were found for
+     * @param candidates candidates from a cracker
+     * @param maxLetters characters of cipher text to decrypt for each candidate
+     * @return new candidates with their coverage as the score, highest first
+     */
+    public List<KeyCandidate> rank(CharSequence cipherText, List<KeyCandidate> candidates, int maxLetters) {
+        CharSequence sample = cipherText.subSequence(0, Math.min(cipherText.length(), maxLetters));
+        List<KeyCandidate> ranked = new ArrayList<>();
+        for (KeyCandidate candidate : candidates) {
+            String plainText = CompiledKey.compile(candidate.getCipherType(), candidate.getKey()).rawEngine().decrypt(sample); // trial decryptions are not counted in CipherMetrics
+            ranked.add(new KeyCandidate(candidate.getCipherType(), candidate.getKey(), score(plainText, DEFAULT_THRESHOLD)));
+        }
+        ranked.sort((first, second) -> Double.compare(second.getScore(), first.getScore()));
+        return ranked;
+    }
+
+    /**
+     * Finds the child of a node along a letter
+     *
+     * @param node   parent node
+     * @param letter letter 0-25
+     * @return child node, or -1 if there is none
+     */
+    private int child(int node, int letter) {
+        int first = firstChild[node];
+        int end = first + childCount[node];
+        for (int child = first; child < end; child++) { // at most 26 children, sorted by letter
+            int childLetter = letters[child];
+            if (childLetter == letter) {
+                return child;
+            }
+            if (childLetter > letter) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether a node ends a word
+     *
+     * @param node trie node
+     * @return true if the path to the node is a word
+     */
+    private boolean isWord(int node) {
+        return (terminal[node >> 6] & (1L << node)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DictionaryScorer{");
+        sb.append("words=").append(wordCount);
+        sb.append(", nodes=").append(letters.length);
+        sb.append('}');
+        return sb.toString();
+    }
+}
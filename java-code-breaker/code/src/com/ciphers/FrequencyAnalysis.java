@@ -0,0 +1,147 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This is the class for letter frequency analysis
+ * Builds letter histograms of text and compares them with English letter frequencies
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class FrequencyAnalysis {
+    /**
+     * Relative frequency of each letter A-Z in English text
+     */
+    private static final double[] ENGLISH = {
+            0.08167, 0.01492, 0.02782, 0.04253, 0.12702, 0.02228, 0.02015, 0.06094, 0.06966,
+            0.00153, 0.00772, 0.04025, 0.02406, 0.06749, 0.07507, 0.01929, 0.00095, 0.05987,
+            0.06327, 0.09056, 0.02758, 0.00978, 0.02360, 0.00150, 0.01974, 0.00074
+    };
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+
+    private FrequencyAnalysis() {
+    }
+
+    /**
+     * Relative frequency of a letter in English text
+     *
+     * @param letter letter index 0-25
+     * @return expected proportion of letters that are this letter
+     */
+    public static double englishFrequency(int letter) {
+        return ENGLISH[letter];
+    }
+
+    /**
+     * Counts each letter A-Z in the text, lower case letters count as upper case
+     *
+     * @param text plain text or cipher text
+     * @return 26 letter counts
+     */
+    public static long[] histogram(CharSequence text) {
+        long[] counts = new long[26];
+        for (int i = 0; i < text.length(); i++) {
+            int letter = (text.charAt(i) | 0x20) - 'a'; // folds upper case onto lower case
+            if (letter >= 0 && letter < 26) {
+                counts[letter]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts each letter A-Z in a file, reading it once in fixed-size blocks
+     * Lower case letters count as upper case, as they would after inputCipherFile
+     *
+     * @param file file of plain text or cipher text
+     * @return 26 letter counts
+     * @throws IOException Error thrown
+     */
+    public static long[] histogram(Path file) throws IOException {
+        long[] counts = new long[26];
+        byte[] block = new byte[READ_BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(block);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            while ((read = channel.read(buffer.clear())) != -1) {
+                for (int i = 0; i < read; i++) {
+                    int letter = (block[i] | 0x20) - 'a';
+                    if (letter >= 0 && letter < 26) {
+                        counts[letter]++;
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Total number of letters in a histogram
+     *
+     * @param counts 26 letter counts
+     * @return sum of the counts
+     */
+    public static long total(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Builds English bigram log probabilities from a corpus of English text
+     * Only pairs of adjacent letters are counted, anything else is skipped as it is in the cipher text letter stream
+     * Every pair gets one extra count so unseen pairs are unlikely rather than impossible
+     *
+     * @param corpus English text
+     * @return log probability of each bigram, indexed by first letter * 26 + second letter
+     */
+    public static double[] bigramLogProbabilities(CharSequence corpus) {
+        long[] counts = new long[26 * 26];
+        int previous = -1;
+        for (int i = 0; i < corpus.length(); i++) {
+            int letter = (corpus.charAt(i) | 0x20) - 'a';
+            if (letter >= 0 && letter < 26) {
+                if (previous >= 0) {
+                    counts[previous * 26 + letter]++;
+                }
+                previous = letter;
+            }
+        }
+        double total = total(counts) + counts.length;
+        double[] logProbabilities = new double[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            logProbabilities[i] = Math.log((counts[i] + 1) / total);
+        }
+        return logProbabilities;
+    }
+
+    /**
+     * Chi-squared statistic of the text after shifting every letter back by the shift,
+     * computed by rotating the histogram rather than decrypting the text
+     * Lower values are closer to English
+     *
+     * @param counts 26 letter counts of the cipher text
+     * @param shift  Caesar shift 0-25 to test
+     * @return chi-squared statistic against English letter frequencies
+     */
+    public static double chiSquared(long[] counts, int shift) {
+        long total = total(counts);
+        if (total == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double chiSquared = 0;
+        for (int letter = 0; letter < 26; letter++) {
+            double expected = total * ENGLISH[letter];
+            double difference = counts[(letter + shift) % 26] - expected; // plain letter p was encrypted to p + shift
+            chiSquared += difference * difference / expected;
+        }
+        return chiSquared;
+    }
+}
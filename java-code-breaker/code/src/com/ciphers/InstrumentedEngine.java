@@ -0,0 +1,154 @@
+package com.ciphers;
+
+import java.io.IOException;
+
+/**
+ * This is the engine that records metrics around another engine
+ * Each call is one operation in the CipherMetrics for the cipher and direction
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+final class InstrumentedEngine implements CipherEngine {
+    private final CipherEngine engine;
+    private final CipherMetrics encryptMetrics;
+    private final CipherMetrics decryptMetrics;
+
+    /**
+     * Constructor for the engine
+     *
+     * @param engine engine that does the work
+     */
+    InstrumentedEngine(CipherEngine engine) {
+        this.engine = engine;
+        this.encryptMetrics = CipherMetrics.get(engine.getCipherType(), true);
+        this.decryptMetrics = CipherMetrics.get(engine.getCipherType(), false);
+    }
+
+    /**
+     * Getter for the engine that does the work, for callers that record one operation around many calls
+     *
+     * @return engine without metrics
+     */
+    CipherEngine unwrap() {
+        return engine;
+    }
+
+    /**
+     * Getter for the metrics of one direction
+     *
+     * @param encrypt Boolean - if true then the encryption metrics are returned, else the decryption metrics
+     * @return metrics
+     */
+    CipherMetrics metrics(boolean encrypt) {
+        return encrypt ? encryptMetrics : decryptMetrics;
+    }
+
+    @Override
+    public String getCipherType() {
+        return engine.getCipherType();
+    }
+
+    @Override
+    public String getKey() {
+        return engine.getKey();
+    }
+
+    @Override
+    public int process(CharSequence in, int from, int to, char[] out, int outOffset, int keyPosition, boolean encrypt) {
+        CipherMetrics metrics = encrypt ? encryptMetrics : decryptMetrics;
+        long start = metrics.start(to - from);
+        try {
+            int result = engine.process(in, from, to, out, outOffset, keyPosition, encrypt);
+            metrics.record(start, to - from, to - from);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.error();
+            throw e;
+        }
+    }
+
+    @Override
+    public String encrypt(CharSequence plaintext) {
+        long start = encryptMetrics.start(plaintext.length());
+        try {
+            String result = engine.encrypt(plaintext); // keeps the engine's own paths, e.g. parallel vigenere
+            encryptMetrics.record(start, plaintext.length(), result.length());
+            return result;
+        } catch (RuntimeException e) {
+            encryptMetrics.error();
+            throw e;
+        }
+    }
+
+    @Override
+    public String decrypt(CharSequence ciphertext) {
+        long start = decryptMetrics.start(ciphertext.length());
+        try {
+            String result = engine.decrypt(ciphertext);
+            decryptMetrics.record(start, ciphertext.length(), result.length());
+            return result;
+        } catch (RuntimeException e) {
+            decryptMetrics.error();
+            throw e;
+        }
+    }
+
+    @Override
+    public char[] encrypt(char[] plaintext) {
+        long start = encryptMetrics.start(plaintext.length);
+        try {
+            char[] result = engine.encrypt(plaintext);
+            encryptMetrics.record(start, plaintext.length, result.length);
+            return result;
+        } catch (RuntimeException e) {
+            encryptMetrics.error();
+            throw e;
+        }
+    }
+
+    @Override
+    public char[] decrypt(char[] ciphertext) {
+        long start = decryptMetrics.start(ciphertext.length);
+        try {
+            char[] result = engine.decrypt(ciphertext);
+            decryptMetrics.record(start, ciphertext.length, result.length);
+            return result;
+        } catch (RuntimeException e) {
+            decryptMetrics.error();
+            throw e;
+        }
+    }
+
+    @Override
+    public void encrypt(CharSequence plaintext, Appendable out) throws IOException {
+        long start = encryptMetrics.start(plaintext.length());
+        try {
+            engine.encrypt(plaintext, out);
+            encryptMetrics.record(start, plaintext.length(), plaintext.length());
+        } catch (IOException | RuntimeException e) {
+            encryptMetrics.error();
+            throw e;
+        }
+    }
+
+    @Override
+    public void decrypt(CharSequence ciphertext, Appendable out) throws IOException {
+        long start = decryptMetrics.start(ciphertext.length());
+        try {
+            engine.decrypt(ciphertext, out);
+            decryptMetrics.record(start, ciphertext.length(), ciphertext.length());
+        } catch (IOException | RuntimeException e) {
+            decryptMetrics.error();
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("InstrumentedEngine{");
+        sb.append("engine=").append(engine);
+        sb.append('}');
+        return sb.toString();
+    }
+}
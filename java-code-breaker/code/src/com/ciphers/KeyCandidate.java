@@ -0,0 +1,64 @@
+package com.ciphers;
+
+/**
+ * This is the class for a candidate key found while cracking cipher text
+ * The key is in the same format as the key files, so it can be saved directly
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class KeyCandidate {
+    private final String cipherType;
+    private final String key;
+    private final double score;
+
+    /**
+     * Constructor for a candidate key
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key in the same format as the key files
+     * @param score      How well the key decrypts the text, the meaning depends on the scorer that produced it
+     */
+    public KeyCandidate(String cipherType, String key, double score) {
+        this.cipherType = cipherType;
+        this.key = key;
+        this.score = score;
+    }
+
+    /**
+     * Getter for the cipher type
+     *
+     * @return cipherType
+     */
+    public String getCipherType() {
+        return cipherType;
+    }
+
+    /**
+     * Getter for key
+     *
+     * @return key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Getter for score
+     *
+     * @return score
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("KeyCandidate{");
+        sb.append("cipherType='").append(cipherType).append('\'');
+        sb.append(", key='").append(key).append('\'');
+        sb.append(", score=").append(score);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,265 @@
+package com.ciphers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This is the class for the key store
+ * Holds any number of named keys for each cipher type in memory, loaded once from a single file
+ * The file has one key per line as cipher type, name and key separated by tabs
+ * Changes are written behind on a background thread: edits made close together are batched into one write,
+ * which goes to a temporary file that is then renamed over the store so the file is never half written
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class KeyStore implements Closeable {
+    /**
+     * Name of the key used when no other name is chosen
+     */
+    public static final String DEFAULT_NAME = "default";
+
+    /**
+     * Milliseconds between the first unsaved change and the write, so later changes join the same write
+     */
+    public static final long FLUSH_DELAY_MILLIS = 200;
+
+    private final Path file;
+    private final Map<String, Map<String, String>> keys = new ConcurrentHashMap<>(); // cipher type -> name -> key
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService writer;
+    private final Object writeLock = new Object(); // one write to the file at a time
+    private volatile boolean dirty;
+    private volatile IOException lastError;
+
+    /**
+     * Constructor for the key store, loads every key in the file
+     * A missing file gives an empty store, the file is created on the first write
+     *
+     * @param file file the keys are stored in
+     * @throws IOException Error thrown
+     */
+    public KeyStore(Path file) throws IOException {
+        this.file = file;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "key-store-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split("\t", 3);
+                if (fields.length != 3) {
+                    throw new IOException("Error occurred. Invalid key store line: " + line);
+                }
+                keys.computeIfAbsent(fields[0], cipherType -> new ConcurrentHashMap<>()).put(fields[1], fields[2]);
+            }
+        } catch (NoSuchFileException e) {
+            // no keys saved yet
+        }
+    }
+
+    /**
+     * Getter for a key
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param name       name of the key
+     * @return key, or null if there is no key with that name
+     */
+    public String get(String cipherType, String name) {
+        Map<String, String> named = keys.get(cipherType);
+        return named == null ? null : named.get(name);
+    }
+
+    /**
+     * Adds or replaces a key, the change is written to the file in the background
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param name       name of the key
+     * @param key        key in the same format as the key files
+     */
+    public void put(String cipherType, String name, String key) {
+        checkField(cipherType, "Cipher type");
+        checkField(name, "Key name");
+        checkField(key, "Key");
+        keys.computeIfAbsent(cipherType, type -> new ConcurrentHashMap<>()).put(name, key);
+        changed();
+    }
+
+    /**
+     * Removes a key, the change is written to the file in the background
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param name       name of the key
+     * @return true if a key was removed
+     */
+    public boolean remove(String cipherType, String name) {
+        Map<String, String> named = keys.get(cipherType);
+        if (named == null || named.remove(name) == null) {
+            return false;
+        }
+        changed();
+        return true;
+    }
+
+    /**
+     * Names of every key for a cipher type
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @return sorted key names
+     */
+    public List<String> names(String cipherType) {
+        Map<String, String> named = keys.get(cipherType);
+        List<String> names = named == null ? new ArrayList<>() : new ArrayList<>(named.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Total number of keys in the store
+     *
+     * @return number of keys
+     */
+    public int size() {
+        int size = 0;
+        for (Map<String, String> named : keys.values()) {
+            size += named.size();
+        }
+        return size;
+    }
+
+    /**
+     * Getter for the last error from a background write
+     *
+     * @return error, or null if the last write succeeded
+     */
+    public IOException getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Writes any unsaved changes now
+     *
+     * @throws IOException Error thrown
+     */
+    public void flush() throws IOException {
+        synchronized (writeLock) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false; // cleared before the snapshot, so a change made during the write is written again
+            try {
+                write();
+                lastError = null;
+            } catch (IOException e) {
+                dirty = true;
+                lastError = e;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Writes any unsaved changes and stops the background writer
+     *
+     * @throws IOException Error thrown
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        flush();
+    }
+
+    /**
+     * Marks the store as changed and schedules a write if one is not already waiting
+     */
+    private void changed() {
+        dirty = true;
+        if (flushScheduled.compareAndSet(false, true) && !writer.isShutdown()) {
+            writer.schedule(() -> {
+                flushScheduled.set(false);
+                try {
+                    flush();
+                } catch (IOException e) {
+                    // kept in lastError, the next change or close tries again
+                }
+            }, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes every key to a temporary file next to the store, then renames it over the store
+     *
+     * @throws IOException Error thrown
+     */
+    private void write() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Map<String, String>> cipher : keys.entrySet()) {
+                    for (Map.Entry<String, String> named : cipher.getValue().entrySet()) {
+                        out.write(cipher.getKey());
+                        out.write('\t');
+                        out.write(named.getKey());
+                        out.write('\t');
+                        out.write(named.getValue());
+                        out.write('\n');
+                    }
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Error checking for a field stored on a line of the file
+     *
+     * @param value field value
+     * @param field name of the field for the error message
+     */
+    private static void checkField(String value, String field) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Error occurred. " + field + " cannot be empty.");
+        }
+        if (value.indexOf('\t') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Error occurred. " + field + " cannot contain tabs or new lines.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("KeyStore{");
+        sb.append("file=").append(file);
+        sb.append(", keys=").append(size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,257 @@
+package com.ciphers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This is the class for trying many keys against one cipher text
+ * The cipher text is walked once, a tile at a time, and every key decrypts the tile while it is still in cache
+ * Each key only keeps a letter histogram and a running quadgram score, its decrypted text is never built,
+ * so trying thousands of keys costs one pass over the text and no String per key
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class KeySweep {
+    /**
+     * Number of letters every key processes before moving to the next tile, 8 KB stays in the L1 cache
+     */
+    public static final int TILE_SIZE = 8 * 1024;
+
+    private final byte[] letters; // cipher letters 0-25, non-letters do not change the key position so are left out
+    private final QuadgramScorer quadgrams; // null to score by letter frequencies only
+
+    /**
+     * Constructor for a sweep over a cipher text
+     *
+     * @param ciphertext prepared cipher text
+     * @param quadgrams  quadgram table to score each key with, or null to score by chi-squared only
+     */
+    public KeySweep(CharSequence ciphertext, QuadgramScorer quadgrams) {
+        this(VigenereCracker.letters(ciphertext), quadgrams);
+    }
+
+    /**
+     * Constructor for a sweep over cipher letters
+     *
+     * @param letters   cipher letters 0-25, as from VigenereCracker.letters
+     * @param quadgrams quadgram table to score each key with, or null to score by chi-squared only
+     */
+    public KeySweep(byte[] letters, QuadgramScorer quadgrams) {
+        if (letters.length == 0) {
+            throw new IllegalArgumentException("Error occurred. Cipher text contains no letters.");
+        }
+        this.letters = letters;
+        this.quadgrams = quadgrams;
+    }
+
+    /**
+     * Decrypts the cipher text under every key in one pass and collects each key's statistics
+     *
+     * @param keys compiled keys of any cipher type
+     * @return one result per key, in the same order as the keys
+     */
+    public List<Result> sweep(List<CompiledKey> keys) {
+        int keyCount = keys.size();
+        byte[][] maps = new byte[keyCount][];
+        int[] periods = new int[keyCount];
+        for (int k = 0; k < keyCount; k++) {
+            periods[k] = keys.get(k).getPeriod();
+            maps[k] = decryptMap(keys.get(k));
+        }
+        int[][] histograms = new int[keyCount][26];
+        double[] scores = new double[keyCount];
+        int[] ones = new int[keyCount]; // last one, two and three plain letters of each key, carried across tiles
+        int[] twos = new int[keyCount];
+        int[] threes = new int[keyCount];
+
+        for (int tileStart = 0; tileStart < letters.length; tileStart += TILE_SIZE) {
+            int tileEnd = Math.min(tileStart + TILE_SIZE, letters.length);
+            for (int k = 0; k < keyCount; k++) {
+                byte[] map = maps[k];
+                int[] histogram = histograms[k];
+                int period = periods[k];
+                int column = tileStart % period;
+                int base = column * 26;
+                int one = ones[k];
+                int two = twos[k];
+                int three = threes[k];
+                double score = 0;
+                for (int i = tileStart; i < tileEnd; i++) {
+                    int plain = map[base + letters[i]];
+                    histogram[plain]++;
+                    if (quadgrams != null) {
+                        if (i >= 3) {
+                            score += quadgrams.logProbability(three * 26 + plain);
+                        }
+                        three = two * 26 + plain; // rolled without a division, as in QuadgramScorer
+                        two = one * 26 + plain;
+                        one = plain;
+                    }
+                    base += 26;
+                    if (++column == period) {
+                        column = 0;
+                        base = 0;
+                    }
+                }
+                scores[k] += score;
+                ones[k] = one;
+                twos[k] = two;
+                threes[k] = three;
+            }
+        }
+
+        List<Result> results = new ArrayList<>(keyCount);
+        for (int k = 0; k < keyCount; k++) {
+            results.add(new Result(keys.get(k), histograms[k], scores[k], quadgrams != null));
+        }
+        return results;
+    }
+
+    /**
+     * Sweeps the keys and returns the best of them
+     * Keys are ranked by quadgram score if there is a quadgram table, else by chi-squared
+     *
+     * @param keys compiled keys of any cipher type
+     * @param max  largest number of candidates returned
+     * @return candidate keys, best first, scored by quadgram log probability or chi-squared
+     */
+    public List<KeyCandidate> best(List<CompiledKey> keys, int max) {
+        List<Result> results = sweep(keys);
+        results.sort(quadgrams != null
+                ? Comparator.comparingDouble(Result::getQuadgramScore).reversed()
+                : Comparator.comparingDouble(Result::getChiSquared));
+        List<KeyCandidate> candidates = new ArrayList<>(Math.min(max, results.size()));
+        for (Result result : results.subList(0, Math.min(max, results.size()))) {
+            candidates.add(new KeyCandidate(result.getCipherType(), result.getKey(),
+                    quadgrams != null ? result.getQuadgramScore() : result.getChiSquared()));
+        }
+        return candidates;
+    }
+
+    /**
+     * Getter for the number of letters swept
+     *
+     * @return letters in the cipher text
+     */
+    public int getLetterCount() {
+        return letters.length;
+    }
+
+    /**
+     * Decryption table of a key as letter indexes, one row of 26 per key column
+     *
+     * @param compiled compiled key
+     * @return cipher letter (column * 26 + letter) -> plain letter 0-25
+     */
+    private static byte[] decryptMap(CompiledKey compiled) {
+        int period = compiled.getPeriod();
+        byte[] table = compiled.table(false);
+        byte[][] columns = compiled.columns(false);
+        byte[] map = new byte[period * 26];
+        for (int column = 0; column < period; column++) {
+            for (int letter = 0; letter < 26; letter++) {
+                int plain = (table != null ? table['A' + letter] & 0xFF : columns[column][letter]) - 'A';
+                if (plain < 0 || plain >= 26) {
+                    throw new IllegalArgumentException("Error occurred. Key " + compiled.getKey() + " does not map letters to letters.");
+                }
+                map[column * 26 + letter] = (byte) plain;
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("KeySweep{");
+        sb.append("letters=").append(letters.length);
+        sb.append(", quadgrams=").append(quadgrams != null);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * This is the class for the statistics of one key in a sweep
+     */
+    public static final class Result {
+        private final CompiledKey compiled;
+        private final long[] histogram;
+        private final double quadgramScore;
+        private final double chiSquared;
+
+        /**
+         * Constructor for a result
+         *
+         * @param compiled       key that was tried
+         * @param counts         plain letter counts under the key
+         * @param quadgramScore  sum of quadgram log10 probabilities
+         * @param quadgramScored Boolean - if true then the quadgram score was computed, else it is NaN
+         */
+        private Result(CompiledKey compiled, int[] counts, double quadgramScore, boolean quadgramScored) {
+            this.compiled = compiled;
+            this.histogram = new long[26];
+            for (int letter = 0; letter < 26; letter++) {
+                histogram[letter] = counts[letter];
+            }
+            this.quadgramScore = quadgramScored ? quadgramScore : Double.NaN;
+            this.chiSquared = FrequencyAnalysis.chiSquared(histogram, 0);
+        }
+
+        /**
+         * Getter for the cipher type
+         *
+         * @return cipherType
+         */
+        public String getCipherType() {
+            return compiled.getCipherType();
+        }
+
+        /**
+         * Getter for key
+         *
+         * @return key
+         */
+        public String getKey() {
+            return compiled.getKey();
+        }
+
+        /**
+         * Getter for the letter histogram of the decrypted text
+         *
+         * @return 26 letter counts
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * Getter for the quadgram score of the decrypted text, higher is closer to English
+         *
+         * @return sum of quadgram log10 probabilities, or NaN if the sweep had no quadgram table
+         */
+        public double getQuadgramScore() {
+            return quadgramScore;
+        }
+
+        /**
+         * Getter for the chi-squared statistic of the decrypted text, lower is closer to English
+         *
+         * @return chi-squared statistic against English letter frequencies
+         */
+        public double getChiSquared() {
+            return chiSquared;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Result{");
+            sb.append("cipherType='").append(getCipherType()).append('\'');
+            sb.append(", key='").append(getKey()).append('\'');
+            sb.append(", quadgramScore=").append(quadgramScore);
+            sb.append(", chiSquared=").append(chiSquared);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -74,6 +74,21 @@ public class KeyedCaesarCipher extends Cipher {
      * @return result of algorithm after encryption/decryption has been applied to text
      */
     private String keyedAlgorithm(String text, String key, boolean encrypt) {
+        CipherEngine engine = CipherEngine.forKey("Keyed Caesar", key); // validates the key, cached after the first use
+        if (text == null || text.isEmpty()) {
+            throw new IllegalArgumentException("Error occurred, text is empty");
+        }
+        return encrypt ? engine.encrypt(text) : engine.decrypt(text);
+    }
+
+    /**
+     * Splits the key into its numeric shift and keyword, and builds the shifted keyed alphabet
+     * Shared with the streaming path so both produce the same substitution
+     *
+     * @param key Numeric/Textual shift, e.g. 1TEST
+     * @return keyed alphabet rotated by the numeric shift, letter i of A-Z encrypts to character i
+     */
+    static String shiftedKeyedAlphabet(String key) {
         // splits key into integer and string
         int shift = Integer.parseInt(key.replaceAll("[^0-9].*", ""));
         String keyword = key.substring(String.valueOf(shift).length());
@@ -84,45 +99,13 @@ public class KeyedCaesarCipher extends Cipher {
         if (shift < 0) {
             throw new IllegalArgumentException("Error occurred, numeric shift is negative");
         }
-        if (text == null || text.isEmpty()) {
-            throw new IllegalArgumentException("Error occurred, text is empty");
-        }
 
         String uniqueLetters = removeDuplicates(keyword); // removes all duplicates from the textual part of the string
-        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZ"; // creates alphabet A-Z
         String keyedAlphabet = uniqueLetters + "ABCDEFGHIJKLMNOPQRSTUVWXYZ".replaceAll("[" + uniqueLetters + "]", ""); // creates a keyed alphabet by combining the unique letters and the remaining letters in the alphabet
 
         shift = shift % keyedAlphabet.length(); // adjusts shift value to account for length of keyed alphabet
 
-        String shiftedKeyedAlphabet = keyedAlphabet.substring(shift) + keyedAlphabet.substring(0, shift);  // creates a new keyed alphabet by shifting the original keyed alphabet by shift value
-
-        StringBuilder result = new StringBuilder();
-
-        for (int i = 0; i < text.length(); i++) {
-            char character = text.charAt(i); // retrieves character at index to be encrypted or decrypted
-            if (Character.isLetter(character)) { // error checking, ensures character is a letter before shifting
-                int position;
-                char substitution;
-                if (encrypt) { // specific to encryption
-                    position = alphabet.indexOf(Character.toUpperCase(character)); // finds position of character in alphabet
-                    substitution = shiftedKeyedAlphabet.charAt(position); // finds substitution character from shifted keyed alphabet
-                } else { // specific to decryption
-                    position = shiftedKeyedAlphabet.indexOf(Character.toUpperCase(character)); // finds position of character in shifted keyed alphabet
-                    substitution = alphabet.charAt(position); // finds substitution character from alphabet
-                }
-                char resultChar;
-                if (Character.isUpperCase(character)) { // specific to encryption
-                    resultChar = Character.toUpperCase(substitution);
-                } else { // specific to decryption
-                    resultChar = substitution;
-                }
-                result.append(resultChar); // using StringBuilder
-            } else {
-                result.append(character);
-            }
-        }
-
-        return result.toString();
+        return keyedAlphabet.substring(shift) + keyedAlphabet.substring(0, shift);  // creates a new keyed alphabet by shifting the original keyed alphabet by shift value
     }
 
     /**
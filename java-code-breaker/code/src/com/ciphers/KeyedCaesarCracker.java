@@ -0,0 +1,349 @@
+package com.ciphers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * This is the class for cracking Keyed Caesar Cipher text without the key
+ * A keyed alphabet is a permutation of A-Z, so it is searched for by simulated annealing:
+ * two letters of the decryption alphabet are swapped at a time and the change is kept if the text scores better
+ * The text is scored with English bigram log probabilities against the cipher text bigram counts,
+ * so a swap only rescores the rows and columns of the two letters instead of decrypting the text again
+ * Many random restarts are run in parallel
+ * With a quadgram table the best alphabet of each restart is then hill climbed on quadgram scores,
+ * which fixes the rare letters bigrams cannot place
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class KeyedCaesarCracker {
+    /**
+     * Number of swaps tried by each restart by default
+     */
+    public static final int DEFAULT_ITERATIONS = 20000;
+    private static final double START_TEMPERATURE = 0.005; // per cipher text bigram, cooled linearly to zero
+    private static final int MAX_CANDIDATES = 5;
+
+    private final double[] bigramLogProbabilities;
+    private final long[] bigramCounts = new long[26 * 26];
+    private final long[] letterCounts;
+    private final long bigramTotal;
+    private final QuadgramScorer quadgrams;
+    private final byte[] cipherLetters;
+
+    /**
+     * Prepares the cipher text for cracking
+     *
+     * @param ciphertext             Cipher text to be cracked
+     * @param bigramLogProbabilities English bigram model from FrequencyAnalysis.bigramLogProbabilities
+     */
+    public KeyedCaesarCracker(CharSequence ciphertext, double[] bigramLogProbabilities) {
+        this(ciphertext, bigramLogProbabilities, null);
+    }
+
+    /**
+     * Prepares the cipher text for cracking with a quadgram table to refine the result
+     *
+     * @param ciphertext             Cipher text to be cracked
+     * @param bigramLogProbabilities English bigram model from FrequencyAnalysis.bigramLogProbabilities
+     * @param quadgrams              English quadgram table, or null to only use bigrams
+     */
+    public KeyedCaesarCracker(CharSequence ciphertext, double[] bigramLogProbabilities, QuadgramScorer quadgrams) {
+        if (bigramLogProbabilities.length != 26 * 26) {
+            throw new IllegalArgumentException("Error occurred. Bigram model must have 676 entries.");
+        }
+        this.bigramLogProbabilities = bigramLogProbabilities;
+        byte[] letters = VigenereCracker.letters(ciphertext);
+        if (letters.length < 2) {
+            throw new IllegalArgumentException("Error occurred. Cipher text does not contain enough letters.");
+        }
+        for (int i = 1; i < letters.length; i++) {
+            bigramCounts[letters[i - 1] * 26 + letters[i]]++;
+        }
+        letterCounts = FrequencyAnalysis.histogram(ciphertext);
+        bigramTotal = letters.length - 1;
+        this.quadgrams = quadgrams;
+        this.cipherLetters = letters;
+    }
+
+    /**
+     * Runs the restarts in parallel and keeps the best alphabets found
+     *
+     * @param restarts   number of independent searches
+     * @param iterations number of swaps tried by each search
+     * @param seed       seed for the random swaps, the same seed gives the same result
+     * @return candidate keys in the keyed-caesar-key.txt format, best (highest log probability) first,
+     * scored by quadgrams when there is a quadgram table
+     */
+    public List<KeyCandidate> crack(int restarts, int iterations, long seed) {
+        if (restarts < 1 || iterations < 0) {
+            throw new IllegalArgumentException("Error occurred. Restarts must be at least 1 and iterations cannot be negative.");
+        }
+        List<KeyCandidate> results = IntStream.range(0, restarts).parallel()
+                .mapToObj(restart -> anneal(new SplittableRandom(seed + restart), restart, iterations))
+                .sorted(Comparator.comparingDouble(KeyCandidate::getScore).reversed())
+                .collect(Collectors.toList());
+        List<KeyCandidate> candidates = new ArrayList<>();
+        for (KeyCandidate result : results) { // restarts often agree, so duplicates are dropped
+            if (candidates.size() < MAX_CANDIDATES && candidates.stream().noneMatch(c -> c.getKey().equals(result.getKey()))) {
+                candidates.add(result);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * One simulated annealing search from a starting alphabet
+     *
+     * @param random     random source for this search
+     * @param restart    index of the search, the first one starts from plain frequency order
+     * @param iterations number of swaps to try
+     * @return best key found by this search
+     */
+    private KeyCandidate anneal(SplittableRandom random, int restart, int iterations) {
+        byte[] decryption = frequencyOrder(); // cipher letter -> plain letter
+        if (restart > 0) {
+            for (int i = 25; i > 0; i--) { // random starting alphabet for every other restart
+                swap(decryption, i, random.nextInt(i + 1));
+            }
+        }
+        double score = score(decryption);
+        byte[] best = decryption.clone();
+        double bestScore = score;
+        double startTemperature = START_TEMPERATURE * bigramTotal;
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            int a = random.nextInt(26);
+            int b = random.nextInt(25);
+            if (b >= a) {
+                b++;
+            }
+            double before = partialScore(decryption, a, b);
+            swap(decryption, a, b);
+            double delta = partialScore(decryption, a, b) - before;
+            double temperature = startTemperature * (iterations - iteration) / iterations;
+            if (delta >= 0 || (temperature > 0 && random.nextDouble() < Math.exp(delta / temperature))) {
+                score += delta;
+                if (score > bestScore) {
+                    bestScore = score;
+                    System.arraycopy(decryption, 0, best, 0, 26);
+                }
+            } else {
+                swap(decryption, a, b); // rejects the swap
+            }
+        }
+
+        QuadgramScorer.Substitution substitution = null;
+        if (quadgrams != null) {
+            substitution = quadgrams.substitution(cipherLetters, best);
+            climb(substitution);
+            best = substitution.getAlphabet();
+            bestScore = substitution.getScore();
+        }
+
+        byte[] encryption = new byte[26]; // plain letter -> cipher letter
+        for (int cipherLetter = 0; cipherLetter < 26; cipherLetter++) {
+            encryption[best[cipherLetter]] = (byte) cipherLetter;
+        }
+        return snapToKeyed(encryption, bestScore, substitution);
+    }
+
+    /**
+     * Keeps making whichever swap improves the quadgram score the most until no swap does
+     *
+     * @param substitution quadgram search state, changed in place
+     */
+    private static void climb(QuadgramScorer.Substitution substitution) {
+        while (true) {
+            double bestDelta = 0;
+            int bestA = -1;
+            int bestB = -1;
+            for (int a = 0; a < 25; a++) {
+                for (int b = a + 1; b < 26; b++) {
+                    double delta = substitution.swapDelta(a, b);
+                    if (delta > bestDelta) {
+                        bestDelta = delta;
+                        bestA = a;
+                        bestB = b;
+                    }
+                }
+            }
+            if (bestA < 0) {
+                return;
+            }
+            substitution.swap(bestA, bestB);
+        }
+    }
+
+    /**
+     * Rare letters are often left out of place by the search, but in a real keyed alphabet every letter
+     * after the keyword is in alphabetical order
+     * Tries every shift and keyword prefix of the alphabet found, with the rest of the alphabet put back in order,
+     * and keeps whichever scores best
+     *
+     * @param encryption   plain letter -> cipher letter found by the search
+     * @param score        score of that alphabet
+     * @param substitution quadgram search state to score the alphabets with, or null to use bigrams
+     * @return best key found
+     */
+    private KeyCandidate snapToKeyed(byte[] encryption, double score, QuadgramScorer.Substitution substitution) {
+        String bestKey = keyFor(encryption);
+        double bestScore = score;
+        byte[] keyed = new byte[26];
+        byte[] candidate = new byte[26];
+        byte[] decryption = new byte[26];
+        for (int shift = 0; shift < 26; shift++) {
+            for (int i = 0; i < 26; i++) {
+                keyed[(i + shift) % 26] = encryption[i]; // undoes the rotation of the keyed alphabet
+            }
+            for (int length = 1; length < 26; length++) {
+                boolean[] used = new boolean[26];
+                for (int i = 0; i < length; i++) {
+                    used[keyed[i]] = true;
+                }
+                System.arraycopy(keyed, 0, candidate, 0, length);
+                int next = length;
+                for (int letter = 0; letter < 26; letter++) { // the rest of the alphabet in order
+                    if (!used[letter]) {
+                        candidate[next++] = (byte) letter;
+                    }
+                }
+                for (int i = 0; i < 26; i++) {
+                    decryption[candidate[(i + shift) % 26]] = (byte) i;
+                }
+                double candidateScore = substitution == null ? score(decryption) : quadgrams.score(cipherLetters, decryption);
+                if (candidateScore > bestScore) {
+                    bestScore = candidateScore;
+                    bestKey = shift + keyword(candidate, length);
+                }
+            }
+        }
+        return new KeyCandidate("Keyed Caesar", bestKey, bestScore);
+    }
+
+    /**
+     * Turns the first letters of a keyed alphabet into a keyword
+     *
+     * @param keyed  keyed alphabet as letter indexes
+     * @param length number of keyword letters
+     * @return keyword
+     */
+    private static String keyword(byte[] keyed, int length) {
+        char[] keyword = new char[length];
+        for (int i = 0; i < length; i++) {
+            keyword[i] = (char) ('A' + keyed[i]);
+        }
+        return new String(keyword);
+    }
+
+    /**
+     * Finds the key with the shortest keyword that produces an encryption alphabet
+     * Every permutation can be written as some keyword and shift, in the worst case with a 25 letter keyword
+     *
+     * @param encryption plain letter index -> cipher letter index
+     * @return key in the keyed-caesar-key.txt format, e.g. 1TEST
+     */
+    public static String keyFor(byte[] encryption) {
+        int bestShift = 0;
+        int bestLength = 26;
+        char[] keyed = new char[26];
+        char[] bestKeyed = new char[26];
+        for (int shift = 0; shift < 26; shift++) {
+            for (int i = 0; i < 26; i++) {
+                keyed[(i + shift) % 26] = (char) ('A' + encryption[i]); // undoes the rotation of the keyed alphabet
+            }
+            int length = 25; // the keyword must be at least one letter, the rest of the alphabet follows in order
+            while (length > 1 && keyed[length - 1] < keyed[length]) {
+                length--;
+            }
+            if (length < bestLength) {
+                bestLength = length;
+                bestShift = shift;
+                System.arraycopy(keyed, 0, bestKeyed, 0, 26);
+            }
+        }
+        return bestShift + new String(bestKeyed, 0, bestLength);
+    }
+
+    /**
+     * Log probability of the whole cipher text decrypted with the alphabet
+     *
+     * @param decryption cipher letter -> plain letter
+     * @return sum of bigram log probabilities
+     */
+    private double score(byte[] decryption) {
+        double score = 0;
+        for (int x = 0; x < 26; x++) {
+            for (int y = 0; y < 26; y++) {
+                long count = bigramCounts[x * 26 + y];
+                if (count != 0) {
+                    score += count * bigramLogProbabilities[decryption[x] * 26 + decryption[y]];
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Log probability of the bigrams that contain cipher letter a or b, the only ones a swap of a and b changes
+     *
+     * @param decryption cipher letter -> plain letter
+     * @param a          first swapped cipher letter
+     * @param b          second swapped cipher letter
+     * @return sum of bigram log probabilities in rows and columns a and b
+     */
+    private double partialScore(byte[] decryption, int a, int b) {
+        double score = 0;
+        int plainA = decryption[a] * 26;
+        int plainB = decryption[b] * 26;
+        for (int y = 0; y < 26; y++) {
+            int plainY = decryption[y];
+            score += bigramCounts[a * 26 + y] * bigramLogProbabilities[plainA + plainY];
+            score += bigramCounts[b * 26 + y] * bigramLogProbabilities[plainB + plainY];
+            if (y != a && y != b) { // cells in rows a and b are already counted
+                score += bigramCounts[y * 26 + a] * bigramLogProbabilities[plainY * 26 + decryption[a]];
+                score += bigramCounts[y * 26 + b] * bigramLogProbabilities[plainY * 26 + decryption[b]];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Starting alphabet that maps the most common cipher letters to the most common English letters
+     *
+     * @return cipher letter -> plain letter
+     */
+    private byte[] frequencyOrder() {
+        Integer[] cipherOrder = new Integer[26];
+        Integer[] englishOrder = new Integer[26];
+        for (int i = 0; i < 26; i++) {
+            cipherOrder[i] = i;
+            englishOrder[i] = i;
+        }
+        Arrays.sort(cipherOrder, Comparator.comparingLong((Integer letter) -> letterCounts[letter]).reversed());
+        Arrays.sort(englishOrder, Comparator.comparingDouble((Integer letter) -> FrequencyAnalysis.englishFrequency(letter)).reversed());
+        byte[] decryption = new byte[26];
+        for (int rank = 0; rank < 26; rank++) {
+            decryption[cipherOrder[rank]] = (byte) (int) englishOrder[rank];
+        }
+        return decryption;
+    }
+
+    /**
+     * Swaps two entries of an alphabet
+     *
+     * @param alphabet alphabet to change
+     * @param a        first index
+     * @param b        second index
+     */
+    private static void swap(byte[] alphabet, int a, int b) {
+        byte temp = alphabet[a];
+        alphabet[a] = alphabet[b];
+        alphabet[b] = temp;
+    }
+}
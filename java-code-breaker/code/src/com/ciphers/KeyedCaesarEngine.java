@@ -0,0 +1,55 @@
+package com.ciphers;
+
+/**
+ * This is the engine for a Keyed Caesar Cipher
+ * Letters are substituted through the compiled key's lookup table, lower case letters substitute to upper case
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+final class KeyedCaesarEngine implements CipherEngine {
+    private final CompiledKey compiled;
+
+    /**
+     * Constructor for the engine
+     *
+     * @param compiled compiled keyed caesar key
+     */
+    KeyedCaesarEngine(CompiledKey compiled) {
+        this.compiled = compiled;
+    }
+
+    @Override
+    public String getCipherType() {
+        return "Keyed Caesar";
+    }
+
+    @Override
+    public String getKey() {
+        return compiled.getKey();
+    }
+
+    @Override
+    public int process(CharSequence in, int from, int to, char[] out, int outOffset, int keyPosition, boolean encrypt) {
+        byte[] table = compiled.table(encrypt);
+        for (int i = from; i < to; i++) {
+            char character = in.charAt(i); // retrieves character at index to be encrypted or decrypted
+            if (character < 128) { // letters are substituted, everything else maps to itself
+                out[outOffset++] = (char) table[character];
+            } else if (Character.isLetter(character)) { // error checking, only letters A-Z can be substituted
+                throw new IllegalArgumentException("Error occurred, text contains a letter outside A-Z");
+            } else {
+                out[outOffset++] = character;
+            }
+        }
+        return keyPosition;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("KeyedCaesarEngine{");
+        sb.append("key='").append(getKey()).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
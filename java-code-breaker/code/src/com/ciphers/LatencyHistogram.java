@@ -0,0 +1,130 @@
+package com.ciphers;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is the class for recording latencies and reading back percentiles
+ * Latencies are counted in logarithmic buckets of microseconds, 16 buckets per power of two,
+ * so percentiles are within about 6% of the true value
+ * Each bucket is a LongAdder, so threads recording at the same time do not contend
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4; // 16 buckets between each power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    /**
+     * Constructor for an empty histogram
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one latency
+     *
+     * @param nanos time taken in nanoseconds
+     */
+    public void record(long nanos) {
+        counts[bucket(Math.max(0, nanos / 1000))].increment();
+    }
+
+    /**
+     * Number of latencies recorded
+     *
+     * @return count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts[i].sum();
+        }
+        return count;
+    }
+
+    /**
+     * Latency below which the given fraction of recorded latencies fall
+     *
+     * @param fraction percentile as a fraction, e.g. 0.99 for p99
+     * @return latency in microseconds, 0 if nothing has been recorded
+     */
+    public long percentileMicros(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Error occurred. Percentile must be between 0 and 1.");
+        }
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count)); // position of the percentile in sorted order
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(BUCKETS - 1);
+    }
+
+    /**
+     * Removes every recorded latency
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i].reset();
+        }
+    }
+
+    /**
+     * Bucket for a latency, values below 16 get their own bucket
+     *
+     * @param micros latency in microseconds
+     * @return bucket index
+     */
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros); // position of the highest set bit, at least 4
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Largest latency that falls in a bucket
+     *
+     * @param bucket bucket index
+     * @return latency in microseconds
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LatencyHistogram{");
+        sb.append("count=").append(getCount());
+        sb.append(", p50=").append(percentileMicros(0.5)).append("us");
+        sb.append(", p99=").append(percentileMicros(0.99)).append("us");
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,287 @@
+package com.ciphers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This is the class for the sparse letter count index of a prepared text file
+ * Records how many letters come before every interval of bytes, so the Vigenere key position at any byte
+ * can be found by reading at most one interval of the file instead of everything before it
+ * With the default 64 KB interval the index is 8 bytes per 64 KB, about 128 KB for an 1 GB file
+ * The index is kept in a sidecar file next to the text
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class LetterIndex {
+    /**
+     * Default number of bytes between entries
+     */
+    public static final int DEFAULT_INTERVAL = 64 * 1024;
+
+    /**
+     * File name extension added to the text file name for its index
+     */
+    public static final String EXTENSION = ".idx";
+
+    private static final int MAGIC = 0x4C494458; // "LIDX"
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int interval;
+    private final long length; // bytes of the file covered by the index
+    private final long[] letters; // letters before byte i * interval
+
+    /**
+     * Constructor for an index that has already been built
+     *
+     * @param interval number of bytes between entries
+     * @param length   bytes of the file covered
+     * @param letters  letters before the start of each interval
+     */
+    private LetterIndex(int interval, long length, long[] letters) {
+        this.interval = interval;
+        this.length = length;
+        this.letters = letters;
+    }
+
+    /**
+     * Builds the index by reading the whole file once
+     *
+     * @param file     prepared text or cipher text
+     * @param interval number of bytes between entries
+     * @return index
+     * @throws IOException Error thrown
+     */
+    public static LetterIndex build(Path file, int interval) throws IOException {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Error occurred. Index interval must be greater than 0.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long entries = length / interval + 1;
+            if (entries > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Error occurred. Index interval is too small for the file.");
+            }
+            long[] letters = new long[(int) entries];
+            fill(channel, interval, letters, 1);
+            return new LetterIndex(interval, length, letters);
+        }
+    }
+
+    /**
+     * Extends the index over bytes appended to the file since it was indexed
+     * Entries before the last one are kept, the file is only read from the last entry onwards
+     *
+     * @param file prepared text or cipher text that has only grown since it was indexed
+     * @return index covering the whole file, this index if the file has not grown
+     * @throws IOException Error thrown
+     */
+    public LetterIndex extend(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long newLength = channel.size();
+            if (newLength < length) {
+                throw new IOException("Error occurred. File is shorter than when it was indexed.");
+            }
+            if (newLength == length) {
+                return this;
+            }
+            long entries = newLength / interval + 1;
+            if (entries > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Error occurred. Index interval is too small for the file.");
+            }
+            long[] extended = Arrays.copyOf(letters, (int) entries);
+            fill(channel, interval, extended, letters.length); // the last old entry is still right, it starts an interval
+            return new LetterIndex(interval, newLength, extended);
+        }
+    }
+
+    /**
+     * Loads the index for a file from its sidecar, building and saving a new one if there is none
+     * If the file has grown since it was indexed (e.g. after append) the index is extended and saved again,
+     * it is only rebuilt if the file is shorter than when it was indexed
+     *
+     * @param file prepared text or cipher text
+     * @return index
+     * @throws IOException Error thrown
+     */
+    public static LetterIndex forFile(Path file) throws IOException {
+        Path sidecar = sidecar(file);
+        if (Files.exists(sidecar)) {
+            LetterIndex index = load(sidecar);
+            long size = Files.size(file);
+            if (index.length == size) {
+                return index;
+            }
+            if (index.length < size) {
+                index = index.extend(file);
+                index.save(sidecar);
+                return index;
+            }
+        }
+        LetterIndex index = build(file, DEFAULT_INTERVAL);
+        index.save(sidecar);
+        return index;
+    }
+
+    /**
+     * Sidecar path for a file's index
+     *
+     * @param file prepared text or cipher text
+     * @return path of the index file
+     */
+    public static Path sidecar(Path file) {
+        return file.resolveSibling(file.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Reads an index from a sidecar file
+     *
+     * @param sidecar index file
+     * @return index
+     * @throws IOException Error thrown
+     */
+    public static LetterIndex load(Path sidecar) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Error occurred. Not a letter index file: " + sidecar);
+            }
+            int interval = in.readInt();
+            long length = in.readLong();
+            int entries = in.readInt();
+            if (interval <= 0 || length < 0 || entries != length / interval + 1) {
+                throw new IOException("Error occurred. Invalid letter index file: " + sidecar);
+            }
+            long[] letters = new long[entries];
+            for (int i = 0; i < entries; i++) {
+                letters[i] = in.readLong();
+            }
+            return new LetterIndex(interval, length, letters);
+        }
+    }
+
+    /**
+     * Writes the index to a sidecar file
+     *
+     * @param sidecar index file
+     * @throws IOException Error thrown
+     */
+    public void save(Path sidecar) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(sidecar)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(interval);
+            out.writeLong(length);
+            out.writeInt(letters.length);
+            for (long count : letters) {
+                out.writeLong(count);
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of bytes between entries
+     *
+     * @return interval
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Getter for the number of bytes of the file covered by the index
+     *
+     * @return length
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Number of letters before a byte offset, which is the Vigenere key position at that byte
+     * Reads the file from the nearest entry before the offset, offsets past the indexed length
+     * read on from the last entry
+     *
+     * @param channel open channel of the indexed file
+     * @param offset  byte offset in the file
+     * @return letters before the offset
+     * @throws IOException Error thrown
+     */
+    public long lettersBefore(FileChannel channel, long offset) throws IOException {
+        if (offset < 0 || offset > channel.size()) {
+            throw new IllegalArgumentException("Error occurred. Offset is outside the file.");
+        }
+        if (channel.size() < length) {
+            throw new IOException("Error occurred. File is shorter than when it was indexed.");
+        }
+        int entry = (int) Math.min(offset / interval, letters.length - 1);
+        long start = (long) entry * interval;
+        return letters[entry] + countLetters(channel, start, offset);
+    }
+
+    /**
+     * Fills in index entries by counting each interval after the entry before it
+     *
+     * @param channel  open channel of the file
+     * @param interval number of bytes between entries
+     * @param letters  entries, those before the first one filled are already counted
+     * @param from     first entry to fill, at least 1
+     * @throws IOException Error thrown
+     */
+    private static void fill(FileChannel channel, int interval, long[] letters, int from) throws IOException {
+        long count = letters[from - 1];
+        for (int entry = from; entry < letters.length; entry++) {
+            count += countLetters(channel, (long) (entry - 1) * interval, (long) entry * interval);
+            letters[entry] = count;
+        }
+    }
+
+    /**
+     * Counts the letters A-Z in part of a file
+     *
+     * @param channel open channel of the file
+     * @param from    offset of the first byte
+     * @param to      offset after the last byte
+     * @return number of letters
+     * @throws IOException Error thrown
+     */
+    static long countLetters(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(1, to - from)));
+        byte[] bytes = buffer.array();
+        long count = 0;
+        long position = from;
+        while (position < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                int letter = bytes[i] - 'A';
+                if (letter >= 0 && letter < 26) {
+                    count++;
+                }
+            }
+            position += read;
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LetterIndex{");
+        sb.append("interval=").append(interval);
+        sb.append(", length=").append(length);
+        sb.append(", entries=").append(letters.length);
+        sb.append('}');
+        return sb.toString();
+    }
+}
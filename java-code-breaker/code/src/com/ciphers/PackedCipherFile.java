@@ -0,0 +1,374 @@
+package com.ciphers;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This is the class for the packed binary cipher text file format
+ * The header holds the cipher type, a check value of the key, the original length and the number of letters.
+ * Every character then takes 5 bits instead of 8: codes 0-25 are the letters A-Z, and the spare codes
+ * hold the common whitespace characters, so spaces and new lines are packed along with the letters.
+ * Any other byte is written as an escape code followed by the byte in two more codes
+ * Prepared cipher text packs to 5/8 of its size, and files are packed and unpacked in fixed-size chunks
+ * Packed cipher text can be decrypted straight from the packed form, chunk by chunk, without building a String
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class PackedCipherFile {
+    /**
+     * File name extension for packed cipher text
+     */
+    public static final String EXTENSION = ".cbp";
+
+    private static final int MAGIC = 0x43425043; // "CBPC"
+    private static final int VERSION = 1;
+    private static final int BITS = 5;
+    private static final int ESCAPE = 30; // the next two codes hold a byte with no code of its own
+    private static final byte[] CODES = new byte[256]; // byte -> code, ESCAPE if it has none
+    private static final byte[] CHARACTERS = new byte[ESCAPE]; // code -> byte
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    static {
+        for (int letter = 0; letter < 26; letter++) {
+            CHARACTERS[letter] = (byte) ('A' + letter);
+        }
+        CHARACTERS[26] = ' ';
+        CHARACTERS[27] = '\n';
+        CHARACTERS[28] = '\r';
+        CHARACTERS[29] = '\t';
+        Arrays.fill(CODES, (byte) ESCAPE);
+        for (int code = 0; code < ESCAPE; code++) {
+            CODES[CHARACTERS[code] & 0xFF] = (byte) code;
+        }
+    }
+
+    private PackedCipherFile() {
+    }
+
+    /**
+     * Packs cipher text that has already been encrypted
+     *
+     * @param cipherText stream of cipher text
+     * @param output     packed file to write
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key the text was encrypted with, only a check value of it is stored
+     * @return header of the file written
+     * @throws IOException Error thrown
+     */
+    public static Header pack(InputStream cipherText, Path output, String cipherType, String key) throws IOException {
+        CompiledKey.compile(cipherType, key); // checks the key before anything is written
+        return write(cipherText, output, cipherType, key, null, null);
+    }
+
+    /**
+     * Prepares, encrypts and packs plain text in one pass
+     *
+     * @param plainText  stream of raw plain text
+     * @param output     packed file to write
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key to encrypt with, only a check value of it is stored
+     * @param normaliser normaliser for the text, or null if the input is already prepared
+     * @return header of the file written
+     * @throws IOException Error thrown
+     */
+    public static Header encrypt(InputStream plainText, Path output, String cipherType, String key, TextNormaliser normaliser) throws IOException {
+        return write(plainText, output, cipherType, key, new StreamingCipher(cipherType, key, true), normaliser);
+    }
+
+    /**
+     * Reads the header of a packed file
+     *
+     * @param input packed file
+     * @return header
+     * @throws IOException Error thrown
+     */
+    public static Header readHeader(Path input) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(input)))) {
+            return Header.read(in);
+        }
+    }
+
+    /**
+     * Unpacks a packed file back to its cipher text
+     *
+     * @param input packed file
+     * @param out   stream the cipher text is written to
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    public static long unpack(Path input, OutputStream out) throws IOException {
+        return read(input, null, out);
+    }
+
+    /**
+     * Decrypts a packed file straight from the packed form
+     * Each chunk is unpacked into a byte buffer and decrypted in place before it is written
+     *
+     * @param input packed file
+     * @param key   Key the text was encrypted with
+     * @param out   stream the plain text is written to
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    public static long decrypt(Path input, String key, OutputStream out) throws IOException {
+        return read(input, key, out);
+    }
+
+    /**
+     * Writes the header, then packs the input chunk by chunk, optionally preparing and encrypting each chunk first
+     * The lengths in the header are filled in once the whole input has been read
+     *
+     * @param in         input stream
+     * @param output     packed file to write
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key for the check value
+     * @param cipher     cipher to encrypt each chunk with, or null if the input is already cipher text
+     * @param normaliser normaliser for each chunk, or null if the input is already prepared
+     * @return header of the file written
+     * @throws IOException Error thrown
+     */
+    private static Header write(InputStream in, Path output, String cipherType, String key,
+                                StreamingCipher cipher, TextNormaliser normaliser) throws IOException {
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+            header.writeUTF(cipherType);
+            header.writeUTF(CompiledKey.fingerprint(cipherType, key));
+            long lengthPosition = header.size(); // filled in at the end
+            header.writeLong(0);
+            header.writeLong(0);
+            header.flush();
+
+            byte[] buffer = new byte[CHUNK_SIZE];
+            byte[] prepared = normaliser != null && normaliser.maxLength(CHUNK_SIZE) > CHUNK_SIZE ? new byte[normaliser.maxLength(CHUNK_SIZE)] : buffer;
+            byte[] packed = new byte[(prepared.length * 3 * BITS + 7) / 8 + 8]; // every byte may need three codes
+            long bits = 0; // codes waiting to be written, in the low bits
+            int bitCount = 0;
+            long length = 0;
+            long letters = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                int count = normaliser != null ? normaliser.normalise(buffer, 0, read, prepared, 0) : read;
+                if (cipher != null) {
+                    cipher.process(prepared, 0, count);
+                }
+                int written = 0;
+                for (int i = 0; i < count; i++) {
+                    int character = prepared[i] & 0xFF;
+                    int code = CODES[character];
+                    if (code < 26) {
+                        letters++;
+                    }
+                    if (code == ESCAPE) {
+                        bits = (bits << (3 * BITS)) | ((long) ESCAPE << (2 * BITS)) | character; // the byte fills the two codes after the escape
+                        bitCount += 3 * BITS;
+                    } else {
+                        bits = (bits << BITS) | code;
+                        bitCount += BITS;
+                    }
+                    while (bitCount >= 8) {
+                        bitCount -= 8;
+                        packed[written++] = (byte) (bits >>> bitCount);
+                    }
+                }
+                out.write(packed, 0, written);
+                length += count;
+            }
+            if (bitCount > 0) { // last codes padded with zeros, the length says where the text ends
+                packed[0] = (byte) (bits << (8 - bitCount));
+                out.write(packed, 0, 1);
+            }
+            out.flush();
+            ByteBuffer lengths = ByteBuffer.allocate(16).putLong(length).putLong(letters);
+            lengths.flip();
+            channel.write(lengths, lengthPosition);
+            return new Header(cipherType, CompiledKey.fingerprint(cipherType, key), length, letters);
+        }
+    }
+
+    /**
+     * Unpacks a packed file chunk by chunk, optionally decrypting each chunk
+     *
+     * @param input packed file
+     * @param key   Key to decrypt with, or null to write the cipher text
+     * @param out   stream the result is written to
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    private static long read(Path input, String key, OutputStream out) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(input), CHUNK_SIZE))) {
+            Header header = Header.read(in);
+            StreamingCipher cipher = null;
+            if (key != null) {
+                if (!CompiledKey.fingerprint(header.cipherType, key).equals(header.fingerprint)) {
+                    throw new IllegalArgumentException("Error occurred. Key does not match the key the file was encrypted with.");
+                }
+                cipher = new StreamingCipher(header.cipherType, key, false);
+            }
+            byte[] packed = new byte[CHUNK_SIZE];
+            byte[] chunk = new byte[CHUNK_SIZE];
+            long remaining = header.length;
+            long bits = 0;
+            int bitCount = 0;
+            int escaped = 0; // codes still to read for an escaped byte
+            int filled = 0;
+            while (remaining > 0) {
+                int read = in.read(packed);
+                if (read == -1) {
+                    throw new EOFException("Error occurred. Packed file ends before its length.");
+                }
+                for (int i = 0; i < read && remaining > 0; i++) {
+                    bits = (bits << 8) | (packed[i] & 0xFF);
+                    bitCount += 8;
+                    while (bitCount >= BITS && remaining > 0) {
+                        bitCount -= BITS;
+                        int code = (int) (bits >>> bitCount) & 0x1F;
+                        if (escaped > 0) {
+                            if (--escaped > 0) {
+                                chunk[filled] = (byte) (code << BITS); // high bits of the escaped byte
+                                continue;
+                            }
+                            chunk[filled] |= (byte) code;
+                        } else if (code == ESCAPE) {
+                            escaped = 2;
+                            continue;
+                        } else if (code > ESCAPE) {
+                            throw new IOException("Error occurred. Invalid code in packed file.");
+                        } else {
+                            chunk[filled] = CHARACTERS[code];
+                        }
+                        remaining--;
+                        if (++filled == CHUNK_SIZE) {
+                            flushChunk(chunk, filled, cipher, out);
+                            filled = 0;
+                        }
+                    }
+                }
+            }
+            flushChunk(chunk, filled, cipher, out);
+            out.flush();
+            return header.length;
+        }
+    }
+
+    /**
+     * Decrypts an unpacked chunk if there is a cipher, then writes it
+     *
+     * @param chunk  unpacked bytes
+     * @param length number of bytes in the chunk
+     * @param cipher cipher to decrypt with, or null
+     * @param out    stream the chunk is written to
+     * @throws IOException Error thrown
+     */
+    private static void flushChunk(byte[] chunk, int length, StreamingCipher cipher, OutputStream out) throws IOException {
+        if (cipher != null) {
+            cipher.process(chunk, 0, length);
+        }
+        out.write(chunk, 0, length);
+    }
+
+    /**
+     * This is the class for the header of a packed file
+     */
+    public static final class Header {
+        private final String cipherType;
+        private final String fingerprint;
+        private final long length;
+        private final long letters;
+
+        /**
+         * Constructor for a header
+         *
+         * @param cipherType  Caesar, Keyed Caesar or Vigenere
+         * @param fingerprint check value of the key
+         * @param length      number of bytes of cipher text
+         * @param letters     number of letters in the cipher text
+         */
+        private Header(String cipherType, String fingerprint, long length, long letters) {
+            this.cipherType = cipherType;
+            this.fingerprint = fingerprint;
+            this.length = length;
+            this.letters = letters;
+        }
+
+        /**
+         * Reads a header from the start of a packed file
+         *
+         * @param in stream at the start of the file
+         * @return header
+         * @throws IOException Error thrown
+         */
+        private static Header read(DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Error occurred. Not a packed cipher text file.");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Error occurred. Unsupported packed file version " + version + ".");
+            }
+            return new Header(in.readUTF(), in.readUTF(), in.readLong(), in.readLong());
+        }
+
+        /**
+         * Getter for the cipher type
+         *
+         * @return cipherType
+         */
+        public String getCipherType() {
+            return cipherType;
+        }
+
+        /**
+         * Getter for the check value of the key
+         *
+         * @return fingerprint
+         */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Getter for the length of the cipher text
+         *
+         * @return number of bytes
+         */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * Getter for the number of letters in the cipher text
+         *
+         * @return number of letters
+         */
+        public long getLetters() {
+            return letters;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Header{");
+            sb.append("cipherType='").append(cipherType).append('\'');
+            sb.append(", length=").append(length);
+            sb.append(", letters=").append(letters);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This is the class for scoring text by English quadgram (four letter) log probabilities
+ * Quadgrams are much sharper than letter frequencies: a text a few letters away from English scores far lower
+ * The log probabilities are held in one flat float[26^4] table indexed by the base-26 value of the four letters,
+ * and the index is rolled along the text one letter at a time, so scoring reads one table entry per letter
+ * Non-letters are skipped, so quadgrams run across spaces the same way they were counted in the corpus
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class QuadgramScorer {
+    /**
+     * Number of entries in the table, one for every four letter combination
+     */
+    public static final int QUADGRAMS = 26 * 26 * 26 * 26;
+
+    private static final int TRIGRAMS = 26 * 26 * 26;
+    private static final double UNSEEN_COUNT = 0.01; // count given to quadgrams that are not in the corpus
+
+    private final float[] logProbabilities = new float[QUADGRAMS]; // log10 probability, indexed by ((a*26+b)*26+c)*26+d
+    private final long total;
+
+    /**
+     * Builds the table from the quadgram counts of a corpus
+     *
+     * @param counts count of every quadgram
+     * @param total  number of quadgrams counted
+     */
+    private QuadgramScorer(long[] counts, long total) {
+        double floor = Math.log10(UNSEEN_COUNT / total);
+        for (int i = 0; i < QUADGRAMS; i++) {
+            logProbabilities[i] = (float) (counts[i] == 0 ? floor : Math.log10((double) counts[i] / total));
+        }
+        this.total = total;
+    }
+
+    /**
+     * Builds a scorer from English text
+     *
+     * @param corpus English text, any case
+     * @return scorer
+     */
+    public static QuadgramScorer fromCorpus(CharSequence corpus) {
+        long[] counts = new long[QUADGRAMS];
+        long total = 0;
+        int index = 0;
+        int letters = 0;
+        for (int i = 0; i < corpus.length(); i++) {
+            int letter = (corpus.charAt(i) | 0x20) - 'a';
+            if (letter >= 0 && letter < 26) {
+                index = index % TRIGRAMS * 26 + letter;
+                if (++letters >= 4) {
+                    counts[index]++;
+                    total++;
+                }
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Error occurred. Corpus does not contain enough letters.");
+        }
+        return new QuadgramScorer(counts, total);
+    }
+
+    /**
+     * Builds a scorer from an English text file
+     *
+     * @param file corpus file
+     * @return scorer
+     * @throws IOException Error thrown
+     */
+    public static QuadgramScorer load(Path file) throws IOException {
+        return fromCorpus(Files.readString(file, StandardCharsets.ISO_8859_1)); // any byte decodes, only A-Z is counted
+    }
+
+    /**
+     * Getter for the number of quadgrams counted in the corpus
+     *
+     * @return quadgram count
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Log probability of one quadgram
+     *
+     * @param index base-26 value of the four letters
+     * @return log10 probability
+     */
+    public float logProbability(int index) {
+        return logProbabilities[index];
+    }
+
+    /**
+     * Log probability of a text
+     *
+     * @param text candidate plain text, any case
+     * @return sum of quadgram log10 probabilities, higher is more like English
+     */
+    public double score(CharSequence text) {
+        double score = 0;
+        int index = 0;
+        int letters = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int letter = (text.charAt(i) | 0x20) - 'a';
+            if (letter >= 0 && letter < 26) {
+                index = index % TRIGRAMS * 26 + letter;
+                if (++letters >= 4) {
+                    score += logProbabilities[index];
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Log probability of part of an upper case byte array, such as the output of the byte ciphers
+     * Does not allocate, bytes other than A-Z are skipped
+     *
+     * @param text upper case text
+     * @param from index of the first byte
+     * @param to   index after the last byte
+     * @return sum of quadgram log10 probabilities
+     */
+    public double score(byte[] text, int from, int to) {
+        double score = 0;
+        int one = 0; // value of the last letter, last two letters and last three letters,
+        int two = 0; // kept separately so rolling the index needs no division
+        int three = 0;
+        int letters = 0;
+        for (int i = from; i < to; i++) {
+            int letter = text[i] - 'A';
+            if (letter >= 0 && letter < 26) {
+                if (++letters >= 4) {
+                    score += logProbabilities[three * 26 + letter];
+                }
+                three = two * 26 + letter;
+                two = one * 26 + letter;
+                one = letter;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Log probability of letter indexes decrypted through a substitution alphabet, without decrypting them
+     *
+     * @param letters  cipher letters 0-25, as from VigenereCracker.letters
+     * @param alphabet cipher letter -> plain letter
+     * @return sum of quadgram log10 probabilities
+     */
+    public double score(byte[] letters, byte[] alphabet) {
+        if (letters.length < 4) {
+            return 0;
+        }
+        int two = alphabet[letters[1]] * 26 + alphabet[letters[2]];
+        int three = alphabet[letters[0]] * 26 * 26 + two;
+        double score = 0;
+        for (int i = 3; i < letters.length; i++) {
+            int letter = alphabet[letters[i]];
+            score += logProbabilities[three * 26 + letter];
+            three = two * 26 + letter;
+            two = alphabet[letters[i - 1]] * 26 + letter;
+        }
+        return score;
+    }
+
+    /**
+     * Starts a substitution search over a cipher text
+     *
+     * @param ciphertext cipher text to be decrypted
+     * @param alphabet   starting alphabet, cipher letter -> plain letter
+     * @return search state scored with this table
+     */
+    public Substitution substitution(CharSequence ciphertext, byte[] alphabet) {
+        return substitution(VigenereCracker.letters(ciphertext), alphabet);
+    }
+
+    /**
+     * Starts a substitution search over cipher letters
+     *
+     * @param letters  cipher letters 0-25, as from VigenereCracker.letters
+     * @param alphabet starting alphabet, cipher letter -> plain letter
+     * @return search state scored with this table
+     */
+    public Substitution substitution(byte[] letters, byte[] alphabet) {
+        return new Substitution(letters, alphabet);
+    }
+
+    /**
+     * This is the class for scoring a substitution alphabet while two of its letters are swapped at a time
+     * Every cipher letter keeps the list of quadgrams it appears in, so a swap only rescores those quadgrams
+     * instead of the whole text
+     * An instance is used by one thread at a time
+     */
+    public final class Substitution {
+        private final byte[] letters; // cipher letters 0-25
+        private final int[][] quadgrams; // cipher letter -> start of every quadgram containing it, in order
+        private final byte[] alphabet; // cipher letter -> plain letter
+        private double score;
+
+        /**
+         * Constructor for the search state
+         *
+         * @param letters  cipher letters 0-25
+         * @param alphabet starting alphabet, cipher letter -> plain letter
+         */
+        private Substitution(byte[] letters, byte[] alphabet) {
+            if (alphabet.length != 26) {
+                throw new IllegalArgumentException("Error occurred. Alphabet must have 26 letters.");
+            }
+            this.letters = letters;
+            this.alphabet = alphabet.clone();
+            int last = letters.length - 4; // start of the last quadgram
+            int[] counts = new int[26];
+            int[] previous = new int[26]; // last quadgram already listed for each letter, plus one
+            for (int i = 0; i < letters.length; i++) {
+                int start = Math.max(Math.max(0, i - 3), previous[letters[i]]);
+                int end = Math.min(i, last);
+                if (end >= start) {
+                    counts[letters[i]] += end - start + 1;
+                    previous[letters[i]] = end + 1;
+                }
+            }
+            quadgrams = new int[26][];
+            for (int letter = 0; letter < 26; letter++) {
+                quadgrams[letter] = new int[counts[letter]];
+                counts[letter] = 0;
+                previous[letter] = 0;
+            }
+            for (int i = 0; i < letters.length; i++) {
+                int letter = letters[i];
+                for (int start = Math.max(Math.max(0, i - 3), previous[letter]); start <= Math.min(i, last); start++) {
+                    quadgrams[letter][counts[letter]++] = start;
+                    previous[letter] = start + 1;
+                }
+            }
+            score = score(letters, this.alphabet);
+        }
+
+        /**
+         * Getter for the log probability of the text under the current alphabet
+         *
+         * @return sum of quadgram log10 probabilities
+         */
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * Getter for the current alphabet
+         *
+         * @return cipher letter -> plain letter
+         */
+        public byte[] getAlphabet() {
+            return alphabet.clone();
+        }
+
+        /**
+         * Change in score if cipher letters a and b swapped their plain letters, the alphabet is left as it was
+         *
+         * @param a first cipher letter 0-25
+         * @param b second cipher letter 0-25
+         * @return new score minus current score
+         */
+        public double swapDelta(int a, int b) {
+            if (a == b) {
+                return 0;
+            }
+            double before = affected(a, b);
+            swapLetters(a, b);
+            double after = affected(a, b);
+            swapLetters(a, b);
+            return after - before;
+        }
+
+        /**
+         * Swaps the plain letters of cipher letters a and b
+         *
+         * @param a first cipher letter 0-25
+         * @param b second cipher letter 0-25
+         * @return change in score
+         */
+        public double swap(int a, int b) {
+            double delta = swapDelta(a, b);
+            swapLetters(a, b);
+            score += delta;
+            return delta;
+        }
+
+        /**
+         * Log probability of every quadgram containing cipher letter a or b, each counted once
+         *
+         * @param a first cipher letter
+         * @param b second cipher letter
+         * @return sum of quadgram log10 probabilities
+         */
+        private double affected(int a, int b) {
+            double sum = 0;
+            for (int start : quadgrams[a]) {
+                sum += logProbabilities[index(start)];
+            }
+            for (int start : quadgrams[b]) {
+                if (letters[start] != a && letters[start + 1] != a && letters[start + 2] != a && letters[start + 3] != a) { // already counted with a
+                    sum += logProbabilities[index(start)];
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * Table index of the quadgram starting at a position, decrypted through the current alphabet
+         *
+         * @param start position of the first letter
+         * @return base-26 value of the four plain letters
+         */
+        private int index(int start) {
+            return ((alphabet[letters[start]] * 26 + alphabet[letters[start + 1]]) * 26 + alphabet[letters[start + 2]]) * 26
+                    + alphabet[letters[start + 3]];
+        }
+
+        /**
+         * Swaps two entries of the alphabet
+         *
+         * @param a first cipher letter
+         * @param b second cipher letter
+         */
+        private void swapLetters(int a, int b) {
+            byte temp = alphabet[a];
+            alphabet[a] = alphabet[b];
+            alphabet[b] = temp;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("QuadgramScorer{");
+        sb.append("total=").append(total);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,325 @@
+package com.ciphers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * This is the class for encrypting or decrypting an append-only file a piece at a time
+ * Remembers how far through the input and output it has got, along with the Vigenere key position
+ * and the five-letter group position, so each update only processes the bytes appended since the last one
+ * The output is identical to streaming the whole input again, and the state can be saved as a checkpoint
+ * and carried on by a later run
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class ResumableCipher {
+    private final String cipherType;
+    private final boolean encrypt;
+    private final TextNormaliser.Policy policy; // null if the input is already prepared
+    private final String keyCheck;
+    private final StreamingCipher cipher;
+    private TextNormaliser normaliser;
+    private long inputOffset; // bytes of input already processed
+    private long outputOffset; // bytes of output already written
+
+    /**
+     * Constructor for a stream that starts at the beginning of the input
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key to encrypt/decrypt with
+     * @param encrypt    Boolean - if true then stream encrypts, else stream decrypts
+     * @param policy     whitespace policy for preparing the input, or null if the input is already prepared
+     */
+    public ResumableCipher(String cipherType, String key, boolean encrypt, TextNormaliser.Policy policy) {
+        this.cipherType = cipherType;
+        this.encrypt = encrypt;
+        this.policy = policy;
+        this.keyCheck = CompiledKey.fingerprint(cipherType, key);
+        this.cipher = new StreamingCipher(cipherType, key, encrypt);
+        this.normaliser = policy == null ? null : new TextNormaliser(policy);
+    }
+
+    /**
+     * Carries on a stream from a saved checkpoint
+     * The key itself is not stored in the checkpoint, so it has to be given again
+     *
+     * @param key        Key the stream was started with
+     * @param checkpoint saved state of the stream
+     * @return stream that carries on where the checkpoint was taken
+     */
+    public static ResumableCipher resume(String key, Checkpoint checkpoint) {
+        if (!CompiledKey.fingerprint(checkpoint.cipherType, key).equals(checkpoint.keyCheck)) {
+            throw new IllegalArgumentException("Error occurred. Key does not match the key the stream was started with.");
+        }
+        ResumableCipher resumed = new ResumableCipher(checkpoint.cipherType, key, checkpoint.encrypt, checkpoint.policy);
+        resumed.restore(checkpoint);
+        return resumed;
+    }
+
+    /**
+     * Processes everything appended to the input since the last update and appends the result to the output
+     * Anything in the output past the last update, such as a write cut short by a crash, is replaced
+     *
+     * @param input  append-only file of plain text or cipher text
+     * @param output file the result is appended to, created if it does not exist
+     * @return number of bytes appended to the output
+     * @throws IOException Error thrown
+     */
+    public long update(Path input, Path output) throws IOException {
+        Checkpoint before = checkpoint(); // put back if the update fails part way
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            if (in.size() < inputOffset) {
+                throw new IOException("Error occurred. Input is shorter than when it was last processed, it has not only been appended to.");
+            }
+            if (out.size() < outputOffset) {
+                throw new IOException("Error occurred. Output is shorter than when it was last written.");
+            }
+            out.truncate(outputOffset);
+            in.position(inputOffset);
+            out.position(outputOffset);
+            long written = cipher.process(Channels.newInputStream(in), Channels.newOutputStream(out), normaliser, StreamingCipher.DEFAULT_CHUNK_SIZE);
+            out.force(false); // the output is on disk before a checkpoint can say it is
+            inputOffset = in.position();
+            outputOffset += written;
+            return written;
+        } catch (IOException | RuntimeException e) {
+            restore(before);
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a snapshot of the stream state
+     *
+     * @return checkpoint that can be saved and resumed from
+     */
+    public Checkpoint checkpoint() {
+        return new Checkpoint(cipherType, encrypt, policy, keyCheck, cipher.getKeyPosition(),
+                normaliser == null ? 0 : normaliser.getGroupLetters(), inputOffset, outputOffset);
+    }
+
+    /**
+     * Getter for the number of input bytes processed
+     *
+     * @return input offset
+     */
+    public long getInputOffset() {
+        return inputOffset;
+    }
+
+    /**
+     * Getter for the number of output bytes written
+     *
+     * @return output offset
+     */
+    public long getOutputOffset() {
+        return outputOffset;
+    }
+
+    /**
+     * Puts the stream back to the state in a checkpoint
+     *
+     * @param checkpoint state to go back to
+     */
+    private void restore(Checkpoint checkpoint) {
+        cipher.setKeyPosition(checkpoint.keyPosition);
+        normaliser = policy == null ? null : new TextNormaliser(policy, checkpoint.groupLetters);
+        inputOffset = checkpoint.inputOffset;
+        outputOffset = checkpoint.outputOffset;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ResumableCipher{");
+        sb.append("cipherType='").append(cipherType).append('\'');
+        sb.append(", encrypt=").append(encrypt);
+        sb.append(", inputOffset=").append(inputOffset);
+        sb.append(", outputOffset=").append(outputOffset);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * This is the class for the saved state of a resumable stream
+     * Saved as a small properties file, written to a temporary file and renamed so it is never half written
+     */
+    public static final class Checkpoint {
+        private final String cipherType;
+        private final boolean encrypt;
+        private final TextNormaliser.Policy policy;
+        private final String keyCheck;
+        private final long keyPosition;
+        private final int groupLetters;
+        private final long inputOffset;
+        private final long outputOffset;
+
+        /**
+         * Constructor for a checkpoint
+         *
+         * @param cipherType   Caesar, Keyed Caesar or Vigenere
+         * @param encrypt      Boolean - if true then the stream encrypts, else the stream decrypts
+         * @param policy       whitespace policy, or null if the input is already prepared
+         * @param keyCheck     check value of the key
+         * @param keyPosition  Vigenere key position
+         * @param groupLetters letters written in the current five-letter group
+         * @param inputOffset  bytes of input processed
+         * @param outputOffset bytes of output written
+         */
+        private Checkpoint(String cipherType, boolean encrypt, TextNormaliser.Policy policy, String keyCheck,
+                           long keyPosition, int groupLetters, long inputOffset, long outputOffset) {
+            this.cipherType = cipherType;
+            this.encrypt = encrypt;
+            this.policy = policy;
+            this.keyCheck = keyCheck;
+            this.keyPosition = keyPosition;
+            this.groupLetters = groupLetters;
+            this.inputOffset = inputOffset;
+            this.outputOffset = outputOffset;
+        }
+
+        /**
+         * Reads a saved checkpoint
+         *
+         * @param file checkpoint file
+         * @return checkpoint
+         * @throws IOException Error thrown
+         */
+        public static Checkpoint load(Path file) throws IOException {
+            Properties properties = new Properties();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            try {
+                String policy = properties.getProperty("policy", "");
+                return new Checkpoint(required(properties, "cipherType"),
+                        Boolean.parseBoolean(required(properties, "encrypt")),
+                        policy.isEmpty() ? null : TextNormaliser.Policy.valueOf(policy),
+                        required(properties, "keyCheck"),
+                        Long.parseLong(required(properties, "keyPosition")),
+                        Integer.parseInt(required(properties, "groupLetters")),
+                        Long.parseLong(required(properties, "inputOffset")),
+                        Long.parseLong(required(properties, "outputOffset")));
+            } catch (IllegalArgumentException e) { // includes numbers and policies that cannot be parsed
+                throw new IOException("Error occurred. Invalid checkpoint file: " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Writes the checkpoint to a temporary file next to the target, then renames it over the target
+         *
+         * @param file checkpoint file
+         * @throws IOException Error thrown
+         */
+        public void save(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("cipherType", cipherType);
+            properties.setProperty("encrypt", Boolean.toString(encrypt));
+            properties.setProperty("policy", policy == null ? "" : policy.name());
+            properties.setProperty("keyCheck", keyCheck);
+            properties.setProperty("keyPosition", Long.toString(keyPosition));
+            properties.setProperty("groupLetters", Integer.toString(groupLetters));
+            properties.setProperty("inputOffset", Long.toString(inputOffset));
+            properties.setProperty("outputOffset", Long.toString(outputOffset));
+            Path directory = file.toAbsolutePath().getParent();
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                    properties.store(out, "CodeBreaker stream checkpoint");
+                }
+                try {
+                    Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        /**
+         * Getter for the cipher type
+         *
+         * @return cipherType
+         */
+        public String getCipherType() {
+            return cipherType;
+        }
+
+        /**
+         * Getter for the direction
+         *
+         * @return true if the stream encrypts
+         */
+        public boolean isEncrypt() {
+            return encrypt;
+        }
+
+        /**
+         * Getter for the Vigenere key position
+         *
+         * @return number of letters processed
+         */
+        public long getKeyPosition() {
+            return keyPosition;
+        }
+
+        /**
+         * Getter for the number of input bytes processed
+         *
+         * @return input offset
+         */
+        public long getInputOffset() {
+            return inputOffset;
+        }
+
+        /**
+         * Getter for the number of output bytes written
+         *
+         * @return output offset
+         */
+        public long getOutputOffset() {
+            return outputOffset;
+        }
+
+        /**
+         * Reads a property that has to be in the file
+         *
+         * @param properties checkpoint properties
+         * @param name       property name
+         * @return property value
+         */
+        private static String required(Properties properties, String name) {
+            String value = properties.getProperty(name);
+            if (value == null) {
+                throw new IllegalArgumentException("missing " + name);
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Checkpoint{");
+            sb.append("cipherType='").append(cipherType).append('\'');
+            sb.append(", encrypt=").append(encrypt);
+            sb.append(", policy=").append(policy);
+            sb.append(", keyPosition=").append(keyPosition);
+            sb.append(", groupLetters=").append(groupLetters);
+            sb.append(", inputOffset=").append(inputOffset);
+            sb.append(", outputOffset=").append(outputOffset);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This is the class for streaming encryption and decryption
+ * Reads, prepares, encrypts/decrypts and writes text in fixed-size chunks
+ * so memory use stays the same no matter how large the input file is
+ * Output is identical to preparing the whole file and running the in-memory cipher classes
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class StreamingCipher {
+    /**
+     * Default number of bytes read, processed and written at a time
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final String cipherType;
+    private final boolean encrypt;
+    private final byte[] substitution; // Caesar and Keyed Caesar: maps every byte to its output byte
+    private final byte[][] columns; // Vigenere: maps letter index 0-25 to output letter for each key column
+    private final byte[] shifts; // Vigenere: shift for each key column, null if the keyword has characters outside A-Z
+    private final boolean metered; // pipelines are not one of the cipher types with metrics
+    private final ByteKernel kernel = ByteKernel.get();
+    private long j; // Vigenere: number of letters processed so far, carried across chunks
+
+    /**
+     * Looks up the compiled key for the chosen cipher and key
+     * Keys are in the same format as the key files
+     *
+     * @param cipherType Caesar, Keyed Caesar or Vigenere
+     * @param key        Key to encrypt/decrypt with
+     * @param encrypt    Boolean - if true then stream encrypts, else stream decrypts
+     */
+    public StreamingCipher(String cipherType, String key, boolean encrypt) {
+        CompiledKey compiled = CompiledKey.compile(cipherType, key);
+        this.cipherType = cipherType;
+        this.encrypt = encrypt;
+        this.substitution = compiled.table(encrypt);
+        this.columns = compiled.columns(encrypt);
+        this.shifts = compiled.letterShifts(encrypt);
+        this.metered = true;
+    }
+
+    /**
+     * Constructor for tables that have already been built, used by CipherPipeline and VectorKernelCheck
+     *
+     * @param cipherType   name reported by the stream
+     * @param encrypt      Boolean - if true then stream encrypts, else stream decrypts
+     * @param substitution output for every single-byte character, or null if the tables are per key column
+     * @param columns      output for letters A-Z in each key column, or null for a substitution
+     * @param shifts       shift for each key column, or null if a column is not a plain rotation
+     */
+    StreamingCipher(String cipherType, boolean encrypt, byte[] substitution, byte[][] columns, byte[] shifts) {
+        this.cipherType = cipherType;
+        this.encrypt = encrypt;
+        this.substitution = substitution;
+        this.columns = columns;
+        this.shifts = shifts;
+        this.metered = false;
+    }
+
+    /**
+     * Getter for the cipher type
+     *
+     * @return cipherType
+     */
+    public String getCipherType() {
+        return cipherType;
+    }
+
+    /**
+     * Getter for the Vigenere key position
+     *
+     * @return number of letters processed so far
+     */
+    public long getKeyPosition() {
+        return j;
+    }
+
+    /**
+     * Setter for the Vigenere key position, used to carry on a stream from a checkpoint
+     *
+     * @param keyPosition number of letters processed before this point in the stream
+     */
+    void setKeyPosition(long keyPosition) {
+        if (keyPosition < 0) {
+            throw new IllegalArgumentException("Error occurred. Key position cannot be negative.");
+        }
+        this.j = keyPosition;
+    }
+
+    /**
+     * Prepares a chunk of raw bytes in place, matching inputPlainFile/inputCipherFile
+     * Keeps letters (converted to uppercase) and whitespace, drops everything else
+     *
+     * @param buffer bytes to prepare
+     * @param length number of bytes in buffer to prepare
+     * @return number of prepared bytes now at the start of buffer
+     */
+    public static int prepare(byte[] buffer, int length) {
+        return new TextNormaliser(TextNormaliser.Policy.KEEP).normalise(buffer, 0, length, buffer, 0);
+    }
+
+    /**
+     * Encrypts/decrypts a chunk of prepared text in place
+     * Non-letters are left unchanged and do not advance the Vigenere key position
+     *
+     * @param buffer prepared bytes
+     * @param offset index of the first byte to process
+     * @param length number of bytes to process
+     */
+    public void process(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        if (substitution != null) {
+            kernel.substitute(buffer, offset, end, substitution);
+        } else if (shifts != null) {
+            j += kernel.vigenere(buffer, offset, end, shifts, (int) (j % shifts.length));
+        } else {
+            int keywordLength = columns.length;
+            int keyIndex = (int) (j % keywordLength);
+            int letters = 0;
+            for (int i = offset; i < end; i++) {
+                int letter = buffer[i] - 'A';
+                if (letter >= 0 && letter < 26) {
+                    buffer[i] = columns[keyIndex][letter];
+                    if (++keyIndex == keywordLength) {
+                        keyIndex = 0;
+                    }
+                    letters++;
+                }
+            }
+            j += letters;
+        }
+    }
+
+    /**
+     * Reads the input stream chunk by chunk, optionally prepares each chunk,
+     * encrypts/decrypts it and writes it to the output stream
+     *
+     * @param in        stream of plain text or cipher text
+     * @param out       stream the result is written to
+     * @param prepare   Boolean - if true then each chunk is prepared before processing, keeping whitespace
+     * @param chunkSize number of bytes held in memory at once
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    public long process(InputStream in, OutputStream out, boolean prepare, int chunkSize) throws IOException {
+        return process(in, out, prepare ? new TextNormaliser(TextNormaliser.Policy.KEEP) : null, chunkSize);
+    }
+
+    /**
+     * Reads the input stream chunk by chunk, prepares each chunk with the normaliser,
+     * encrypts/decrypts it and writes it to the output stream
+     * Preparing and encrypting happen on the same chunk, so each byte is read from memory once
+     *
+     * @param in         stream of plain text or cipher text
+     * @param out        stream the result is written to
+     * @param normaliser normaliser for the text, or null if the input is already prepared
+     * @param chunkSize  number of bytes held in memory at once
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    public long process(InputStream in, OutputStream out, TextNormaliser normaliser, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Error occurred. Chunk size must be greater than 0.");
+        }
+        byte[] buffer = new byte[chunkSize];
+        boolean grows = normaliser != null && normaliser.maxLength(chunkSize) > chunkSize;
+        byte[] prepared = grows ? new byte[normaliser.maxLength(chunkSize)] : buffer; // prepared in place unless groups add spaces
+        CipherMetrics metrics = CipherMetrics.ENABLED && metered ? CipherMetrics.get(cipherType, encrypt) : null;
+        long start = System.nanoTime(); // a whole stream is always timed
+        long bytesRead = 0;
+        long written = 0;
+        int read;
+        try {
+            while ((read = in.read(buffer)) != -1) {
+                int length = normaliser != null ? normaliser.normalise(buffer, 0, read, prepared, 0) : read;
+                process(prepared, 0, length);
+                out.write(prepared, 0, length);
+                bytesRead += read;
+                written += length;
+            }
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            if (metrics != null) {
+                metrics.error();
+            }
+            throw e;
+        }
+        if (metrics != null) {
+            metrics.record(start, bytesRead, written);
+        }
+        return written;
+    }
+
+    /**
+     * Encrypts/decrypts a range of bytes from the middle of a prepared file without processing what comes before it
+     * For Vigenere the key position at the start of the range comes from the letter index,
+     * so only the range and at most one index interval before it are read
+     * The stream's key position is left at the end of the range
+     *
+     * @param input prepared plain text or cipher text file
+     * @param from  offset of the first byte
+     * @param to    offset after the last byte
+     * @param index letter index of the file, or null to count the letters from the start of the file
+     * @return encrypted/decrypted bytes of the range
+     * @throws IOException Error thrown
+     */
+    public byte[] processRange(Path input, long from, long to, LetterIndex index) throws IOException {
+        if (from < 0 || to < from || to - from > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Error occurred. Invalid byte range.");
+        }
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long end = Math.min(to, channel.size());
+            long start = Math.min(from, end);
+            if (substitution == null) { // the Caesar ciphers do not depend on the position
+                j = index != null ? index.lettersBefore(channel, start) : LetterIndex.countLetters(channel, 0, start);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+            while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+                // reads until the range is full
+            }
+            process(buffer.array(), 0, buffer.position());
+            return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+
+    /**
+     * Streams a whole file through the cipher into another file
+     *
+     * @param input   file of plain text or cipher text
+     * @param output  file the result is written to
+     * @param prepare Boolean - if true then the text is prepared before processing, keeping whitespace
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    public long process(Path input, Path output, boolean prepare) throws IOException {
+        return process(input, output, prepare ? new TextNormaliser(TextNormaliser.Policy.KEEP) : null);
+    }
+
+    /**
+     * Streams a whole file through the normaliser and the cipher into another file
+     * An already prepared file under a substitution table (Caesar, Keyed Caesar) is memory-mapped and
+     * substituted straight into the output channel, as in CaesarCipher.encryptChannel
+     *
+     * @param input      file of plain text or cipher text
+     * @param output     file the result is written to
+     * @param normaliser normaliser for the text, or null if the input is already prepared
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    public long process(Path input, Path output, TextNormaliser normaliser) throws IOException {
+        if (normaliser == null && substitution != null) {
+            return processChannel(input, output);
+        }
+        try (InputStream in = Files.newInputStream(input);
+             OutputStream out = Files.newOutputStream(output)) {
+            return process(in, out, normaliser, DEFAULT_CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Substitutes a prepared file into another file through file channels, without copying it through a stream
+     *
+     * @param input  prepared file of plain text or cipher text
+     * @param output file the result is written to
+     * @return number of bytes written
+     * @throws IOException Error thrown
+     */
+    private long processChannel(Path input, Path output) throws IOException {
+        CipherMetrics metrics = CipherMetrics.ENABLED && metered ? CipherMetrics.get(cipherType, encrypt) : null;
+        long start = System.nanoTime();
+        long written;
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            written = CaesarCipher.shiftChannel(in, out, substitution);
+        } catch (IOException | RuntimeException e) {
+            if (metrics != null) {
+                metrics.error();
+            }
+            throw e;
+        }
+        if (metrics != null) {
+            metrics.record(start, written, written);
+        }
+        return written;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StreamingCipher{");
+        sb.append("cipherType='").append(cipherType).append('\'');
+        sb.append(", encrypt=").append(encrypt);
+        sb.append('}');
+        return sb.toString();
+    }
+}
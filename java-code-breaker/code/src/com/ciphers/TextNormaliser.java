@@ -0,0 +1,261 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * This is the class for preparing text before it is encrypted or decrypted
+ * Keeps letters (converted to upper case) and handles whitespace by the chosen policy, drops everything else
+ * Each character is looked up once in a 256-entry table, so text is prepared in a single pass
+ * With the KEEP policy the output is the same as removing [^a-zA-Z\s] and converting to upper case
+ * A normaliser carries the five-letter group position between calls, so one instance is used per stream
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public class TextNormaliser {
+    /**
+     * Number of letters in a group for the GROUPS_OF_FIVE policy
+     */
+    public static final int GROUP_SIZE = 5;
+
+    private static final int CHUNK_SIZE = 8192; // characters read and processed at a time when streaming
+    private static final byte[] KEEP_TABLE = buildTable(true);
+    private static final byte[] DROP_TABLE = buildTable(false);
+
+    /**
+     * This is the enum for the ways whitespace can be handled
+     */
+    public enum Policy {
+        /**
+         * Whitespace is kept as it is
+         */
+        KEEP,
+        /**
+         * Whitespace is removed
+         */
+        DROP,
+        /**
+         * Whitespace is removed and the letters are split into groups of five by single spaces
+         */
+        GROUPS_OF_FIVE
+    }
+
+    private final Policy policy;
+    private final byte[] table; // output for every byte value, 0 if the byte is removed
+    private int groupLetters; // GROUPS_OF_FIVE: letters written in the current group
+
+    /**
+     * Constructor for the normaliser
+     *
+     * @param policy how whitespace is handled
+     */
+    public TextNormaliser(Policy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Error occurred. Whitespace policy cannot be empty.");
+        }
+        this.policy = policy;
+        this.table = policy == Policy.KEEP ? KEEP_TABLE : DROP_TABLE;
+    }
+
+    /**
+     * Constructor for a normaliser that carries on part way through a group, such as a resumed stream
+     *
+     * @param policy       how whitespace is handled
+     * @param groupLetters letters already written in the current group, 0 to GROUP_SIZE
+     */
+    public TextNormaliser(Policy policy, int groupLetters) {
+        this(policy);
+        if (groupLetters < 0 || groupLetters > GROUP_SIZE) {
+            throw new IllegalArgumentException("Error occurred. Group position must be between 0 and " + GROUP_SIZE + ".");
+        }
+        this.groupLetters = groupLetters;
+    }
+
+    /**
+     * Getter for the whitespace policy
+     *
+     * @return policy
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Getter for the number of letters written in the current group
+     *
+     * @return letters in the current group, always 0 unless the policy is GROUPS_OF_FIVE
+     */
+    public int getGroupLetters() {
+        return groupLetters;
+    }
+
+    /**
+     * Largest output the normaliser can produce from an input of the given length
+     *
+     * @param inputLength number of input bytes or characters
+     * @return maximum output length
+     */
+    public int maxLength(int inputLength) {
+        return policy == Policy.GROUPS_OF_FIVE ? inputLength + (inputLength + GROUP_SIZE - 1) / GROUP_SIZE : inputLength; // a group may already be full, so a space can come before the first letter
+    }
+
+    /**
+     * Prepares part of a byte array into an output array
+     * Bytes of multi-byte UTF-8 characters are all above 0x7F so they are removed one by one,
+     * which gives the same result as decoding first
+     * Except for GROUPS_OF_FIVE the output is never longer than the input, so out can be the input array
+     *
+     * @param in        raw bytes
+     * @param from      index of the first byte
+     * @param to        index after the last byte
+     * @param out       array the prepared bytes are written to, with room for maxLength(to - from)
+     * @param outOffset index in out of the first prepared byte
+     * @return number of prepared bytes written
+     */
+    public int normalise(byte[] in, int from, int to, byte[] out, int outOffset) {
+        int written = outOffset;
+        if (policy != Policy.GROUPS_OF_FIVE) {
+            for (int i = from; i < to; i++) {
+                byte prepared = table[in[i] & 0xFF];
+                if (prepared != 0) {
+                    out[written++] = prepared;
+                }
+            }
+            return written - outOffset;
+        }
+        int letters = groupLetters;
+        for (int i = from; i < to; i++) {
+            byte prepared = table[in[i] & 0xFF];
+            if (prepared != 0) {
+                if (letters == GROUP_SIZE) { // space goes before the next letter, so the text never ends with one
+                    out[written++] = ' ';
+                    letters = 0;
+                }
+                out[written++] = prepared;
+                letters++;
+            }
+        }
+        groupLetters = letters;
+        return written - outOffset;
+    }
+
+    /**
+     * Prepares part of a character sequence into an output array
+     * Characters outside the single-byte range are removed, as the regex only keeps a-z and A-Z
+     *
+     * @param in        raw text
+     * @param from      index of the first character
+     * @param to        index after the last character
+     * @param out       array the prepared characters are written to, with room for maxLength(to - from)
+     * @param outOffset index in out of the first prepared character
+     * @return number of prepared characters written
+     */
+    public int normalise(CharSequence in, int from, int to, char[] out, int outOffset) {
+        int written = outOffset;
+        int letters = groupLetters;
+        boolean groups = policy == Policy.GROUPS_OF_FIVE;
+        for (int i = from; i < to; i++) {
+            char character = in.charAt(i);
+            byte prepared = character < 256 ? table[character] : 0;
+            if (prepared != 0) {
+                if (groups) {
+                    if (letters == GROUP_SIZE) {
+                        out[written++] = ' ';
+                        letters = 0;
+                    }
+                    letters++;
+                }
+                out[written++] = (char) prepared;
+            }
+        }
+        groupLetters = letters;
+        return written - outOffset;
+    }
+
+    /**
+     * Prepares a whole text
+     *
+     * @param text raw text
+     * @return prepared text
+     */
+    public String normalise(CharSequence text) {
+        char[] out = new char[maxLength(text.length())];
+        int length = normalise(text, 0, text.length(), out, 0);
+        return new String(out, 0, length);
+    }
+
+    /**
+     * Reads text a chunk at a time, prepares each chunk and passes it straight to the engine,
+     * so the text is prepared and encrypted/decrypted while the chunk is still in cache
+     * The whole stream is recorded as one operation in CipherMetrics, not one per chunk
+     *
+     * @param in      reader of raw plain text or cipher text
+     * @param engine  engine for the cipher and key
+     * @param encrypt Boolean - if true then the engine encrypts, else the engine decrypts
+     * @param out     Appendable the result is written to
+     * @return number of characters written
+     * @throws IOException Error thrown
+     */
+    public long process(Reader in, CipherEngine engine, boolean encrypt, Appendable out) throws IOException {
+        char[] chunk = new char[CHUNK_SIZE];
+        char[] prepared = new char[maxLength(CHUNK_SIZE)];
+        char[] result = new char[prepared.length];
+        CharBuffer preparedBuffer = CharBuffer.wrap(prepared);
+        CharBuffer resultBuffer = CharBuffer.wrap(result);
+        CipherMetrics metrics = engine instanceof InstrumentedEngine ? ((InstrumentedEngine) engine).metrics(encrypt) : null;
+        CipherEngine worker = engine instanceof InstrumentedEngine ? ((InstrumentedEngine) engine).unwrap() : engine; // chunks are not operations
+        long start = System.nanoTime(); // a whole stream is always timed
+        int keyPosition = 0;
+        long charactersRead = 0;
+        long written = 0;
+        int read;
+        try {
+            while ((read = in.read(chunk)) != -1) {
+                int length = normalise(CharBuffer.wrap(chunk, 0, read), 0, read, prepared, 0);
+                keyPosition = worker.process(preparedBuffer, 0, length, result, 0, keyPosition, encrypt);
+                out.append(resultBuffer, 0, length);
+                charactersRead += read;
+                written += length;
+            }
+        } catch (IOException | RuntimeException e) {
+            if (metrics != null) {
+                metrics.error();
+            }
+            throw e;
+        }
+        if (metrics != null) {
+            metrics.record(start, charactersRead, written);
+        }
+        return written;
+    }
+
+    /**
+     * Builds the lookup table, letters map to upper case and everything else is removed
+     *
+     * @param keepWhitespace Boolean - if true then whitespace maps to itself
+     * @return 256-entry table
+     */
+    private static byte[] buildTable(boolean keepWhitespace) {
+        byte[] table = new byte[256];
+        for (int letter = 0; letter < 26; letter++) {
+            table['A' + letter] = (byte) ('A' + letter);
+            table['a' + letter] = (byte) ('A' + letter);
+        }
+        if (keepWhitespace) {
+            for (char whitespace : new char[]{' ', '\t', '\n', '\u000B', '\f', '\r'}) { // \s without the Unicode flag
+                table[whitespace] = (byte) whitespace;
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TextNormaliser{");
+        sb.append("policy=").append(policy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
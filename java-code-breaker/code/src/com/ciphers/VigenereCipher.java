@@ -1,5 +1,7 @@
 package com.ciphers;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * This is the class for a Vigenere Cipher
  * It allows for encryption of plain text
@@ -52,6 +54,50 @@ public class VigenereCipher extends Cipher {
         return vigenereAlgorithm(cipher, false);
     }
 
+    /**
+     * Called when encrypting large plain text, splits the text into blocks and encrypts them in parallel
+     * Gives the same cipher text as encryptVigenere
+     *
+     * @param cipher cipher Object passed into method - contains plain text, cipher text, and key
+     * @return cipher text output after encryption
+     */
+    public String encryptVigenereParallel(Cipher cipher) {
+        return vigenereParallel(cipher, true, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Called when decrypting large cipher text, splits the text into blocks and decrypts them in parallel
+     * Gives the same plain text as decryptVigenere
+     *
+     * @param cipher cipher Object passed into method - contains plain text, cipher text, and key
+     * @return plain text output after decryption
+     */
+    public String decryptVigenereParallel(Cipher cipher) {
+        return vigenereParallel(cipher, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel algorithm for vigenere cipher encryption and decryption
+     * Always splits the text into blocks, see VigenereEngine
+     *
+     * @param cipher  cipher Object passed into method - contains plain text, cipher text, and key
+     * @param encrypt Boolean - if true then algorithm encrypts, else algorithm decrypts
+     * @param pool    fork-join pool the blocks are run on
+     * @return result of algorithm after encryption/decryption has been applied to text
+     */
+    public String vigenereParallel(Cipher cipher, boolean encrypt, ForkJoinPool pool) {
+        String text = checkText(cipher, encrypt);
+        VigenereEngine engine = new VigenereEngine(CompiledKey.compile("Vigenere", cipher.getKey()));
+        if (!CipherMetrics.ENABLED) {
+            return setResult(engine.processParallel(text.toUpperCase(), encrypt, pool), encrypt);
+        }
+        CipherMetrics metrics = CipherMetrics.get("Vigenere", encrypt);
+        long start = metrics.start(text.length());
+        String result = engine.processParallel(text.toUpperCase(), encrypt, pool);
+        metrics.record(start, text.length(), result.length());
+        return setResult(result, encrypt);
+    }
+
     /**
      * Algorithm for vigenere cipher encryption and decryption
      *
@@ -60,6 +106,20 @@ public class VigenereCipher extends Cipher {
      * @return result of algorithm after encryption/decryption has been applied to text
      */
     private String vigenereAlgorithm(Cipher cipher, boolean encrypt) {
+        String text = checkText(cipher, encrypt);
+        CipherEngine engine = CipherEngine.forKey("Vigenere", cipher.getKey()); // cached after the first use
+        text = text.toUpperCase();
+        return setResult(encrypt ? engine.encrypt(text) : engine.decrypt(text), encrypt);
+    }
+
+    /**
+     * Checks the key and text before encryption/decryption
+     *
+     * @param cipher  cipher Object passed into method - contains plain text, cipher text, and key
+     * @param encrypt Boolean - if true then the plain text is checked, else the cipher text is checked
+     * @return text to encrypt/decrypt
+     */
+    private static String checkText(Cipher cipher, boolean encrypt) {
         String text;
         if (encrypt) { // specific to encryption
             text = cipher.getPlaintext();
@@ -67,7 +127,6 @@ public class VigenereCipher extends Cipher {
             text = cipher.getCiphertext();
         }
         String keyword = cipher.getKey();
-        String result;
 
         // ERROR CHECKING
         if (keyword == null || keyword.isEmpty()) {
@@ -76,37 +135,17 @@ public class VigenereCipher extends Cipher {
         if (text == null || text.isEmpty()) {
             throw new IllegalArgumentException("Error occurred. Text cannot be empty.");
         }
+        return text;
+    }
 
-        keyword = keyword.toUpperCase();
-        text = text.toUpperCase();
-        int keywordLength = keyword.length();
-        int textLength = text.length();
-        char[] output = new char[textLength];
-        int j = 0;
-
-        for (int i = 0; i < textLength; i++) {
-            char inputChar = text.charAt(i);
-
-            if (!Character.isLetter(inputChar)) {
-                output[i] = inputChar;
-                continue;
-            }
-
-            int keywordCharIndex = j % keywordLength;
-            char keywordChar = keyword.charAt(keywordCharIndex);
-            int shiftAmount = (int) keywordChar - 65;
-            char outputChar;
-            if (encrypt) { // specific to encryption
-                outputChar = (char) ((inputChar + shiftAmount - 65) % 26 + 65);
-            } else { // specific to decryption
-                outputChar = (char) ((inputChar - shiftAmount - 65 + 26) % 26 + 65);
-            }
-            output[i] = outputChar;
-            j++;
-        }
-
-        result = new String(output);
-
+    /**
+     * Stores the result in this cipher
+     *
+     * @param result  text after encryption/decryption
+     * @param encrypt Boolean - if true then the result is cipher text, else plain text
+     * @return result
+     */
+    private String setResult(String result, boolean encrypt) {
         if (encrypt) { // specific to encryption
             setCiphertext(result);
             return getCiphertext();
@@ -116,6 +155,22 @@ public class VigenereCipher extends Cipher {
         }
     }
 
+    /**
+     * Shifts a single letter by the shift of its key column
+     *
+     * @param inputChar   upper case letter from the text
+     * @param shiftAmount shift of the keyword letter, 0 for A
+     * @param encrypt     Boolean - if true then algorithm encrypts, else algorithm decrypts
+     * @return shifted letter
+     */
+    static char shiftLetter(int inputChar, int shiftAmount, boolean encrypt) {
+        if (encrypt) { // specific to encryption
+            return (char) ((inputChar + shiftAmount - 65) % 26 + 65);
+        } else { // specific to decryption
+            return (char) ((inputChar - shiftAmount - 65 + 26) % 26 + 65);
+        }
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("VigenereCipher{");
@@ -0,0 +1,229 @@
+package com.ciphers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * This is the class for cracking Vigenere Cipher text without the key
+ * Estimates the key length with the index of coincidence of each column for every candidate length,
+ * then solves each column as a Caesar shift by frequency analysis
+ * Candidate lengths and columns are evaluated in parallel
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class VigenereCracker {
+    /**
+     * Longest key length tried by default
+     */
+    public static final int DEFAULT_MAX_PERIOD = 20;
+    private static final double PERIOD_TOLERANCE = 0.9; // multiples of the key length score as well, so the shortest close to the best wins
+    private static final int MAX_CANDIDATES = 5;
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+
+    private VigenereCracker() {
+    }
+
+    /**
+     * Cracks vigenere cipher text
+     *
+     * @param ciphertext Cipher text to be cracked
+     * @param maxPeriod  longest key length to try
+     * @return candidate keys in the vigenere-key.txt format, most likely first, scored by index of coincidence
+     */
+    public static List<KeyCandidate> crack(CharSequence ciphertext, int maxPeriod) {
+        byte[] letters = letters(ciphertext);
+        int longest = longestPeriod(letters.length, maxPeriod);
+        long[][][] columnCounts = new long[longest + 1][][];
+        IntStream.rangeClosed(1, longest).parallel().forEach(period -> columnCounts[period] = columnCounts(letters, period));
+        return solve(columnCounts);
+    }
+
+    /**
+     * Cracks a vigenere cipher text file, reading it once
+     * The column histograms for every candidate key length are built in the same pass
+     *
+     * @param ciphertextFile file of cipher text to be cracked
+     * @param maxPeriod      longest key length to try
+     * @return candidate keys in the vigenere-key.txt format, most likely first, scored by index of coincidence
+     * @throws IOException Error thrown
+     */
+    public static List<KeyCandidate> crack(Path ciphertextFile, int maxPeriod) throws IOException {
+        if (maxPeriod < 1) {
+            throw new IllegalArgumentException("Error occurred. Maximum key length must be at least 1.");
+        }
+        long[][][] columnCounts = new long[maxPeriod + 1][][];
+        int[] columns = new int[maxPeriod + 1]; // key column of the next letter for each candidate length
+        for (int period = 1; period <= maxPeriod; period++) {
+            columnCounts[period] = new long[period][26];
+        }
+        long letterCount = 0;
+        byte[] block = new byte[READ_BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(block);
+        try (FileChannel channel = FileChannel.open(ciphertextFile, StandardOpenOption.READ)) {
+            int read;
+            while ((read = channel.read(buffer.clear())) != -1) {
+                for (int i = 0; i < read; i++) {
+                    int letter = (block[i] | 0x20) - 'a';
+                    if (letter < 0 || letter >= 26) {
+                        continue;
+                    }
+                    for (int period = 1; period <= maxPeriod; period++) {
+                        columnCounts[period][columns[period]][letter]++;
+                        if (++columns[period] == period) {
+                            columns[period] = 0;
+                        }
+                    }
+                    letterCount++;
+                }
+            }
+        }
+        int longest = longestPeriod(letterCount, maxPeriod);
+        long[][][] usable = new long[longest + 1][][];
+        System.arraycopy(columnCounts, 0, usable, 0, longest + 1);
+        return solve(usable);
+    }
+
+    /**
+     * Extracts the letters that advance the vigenere key, as letter indexes 0-25
+     * Everything else is skipped, as it is by vigenereAlgorithm
+     *
+     * @param text plain text or cipher text
+     * @return letter indexes in order
+     */
+    public static byte[] letters(CharSequence text) {
+        byte[] letters = new byte[text.length()];
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int letter = (text.charAt(i) | 0x20) - 'a';
+            if (letter >= 0 && letter < 26) {
+                letters[count++] = (byte) letter;
+            }
+        }
+        byte[] result = new byte[count];
+        System.arraycopy(letters, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Index of coincidence of a letter histogram
+     * Around 0.066 for English, around 0.038 for random letters
+     *
+     * @param counts 26 letter counts
+     * @return probability that two letters picked at random are the same
+     */
+    public static double indexOfCoincidence(long[] counts) {
+        long total = FrequencyAnalysis.total(counts);
+        if (total < 2) {
+            return 0;
+        }
+        double sum = 0;
+        for (long count : counts) {
+            sum += (double) count * (count - 1);
+        }
+        return sum / ((double) total * (total - 1));
+    }
+
+    /**
+     * Counts the letters in each key column for one key length
+     *
+     * @param letters letter indexes 0-25
+     * @param period  key length
+     * @return 26 letter counts for each column
+     */
+    static long[][] columnCounts(byte[] letters, int period) {
+        long[][] counts = new long[period][26];
+        int column = 0;
+        for (byte letter : letters) {
+            counts[column][letter]++;
+            if (++column == period) {
+                column = 0;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Longest key length that leaves at least two letters in every column
+     *
+     * @param letterCount number of letters in the cipher text
+     * @param maxPeriod   longest key length requested
+     * @return longest key length worth trying
+     */
+    static int longestPeriod(long letterCount, int maxPeriod) {
+        if (maxPeriod < 1) {
+            throw new IllegalArgumentException("Error occurred. Maximum key length must be at least 1.");
+        }
+        if (letterCount < 2) {
+            throw new IllegalArgumentException("Error occurred. Cipher text does not contain enough letters.");
+        }
+        return (int) Math.min(maxPeriod, letterCount / 2);
+    }
+
+    /**
+     * Ranks the candidate key lengths and solves each column of the best ones
+     *
+     * @param columnCounts column histograms indexed by key length, index 0 unused
+     * @return candidate keys, most likely first
+     */
+    private static List<KeyCandidate> solve(long[][][] columnCounts) {
+        int longest = columnCounts.length - 1;
+        double[] periodScores = new double[longest + 1];
+        IntStream.rangeClosed(1, longest).parallel().forEach(period -> {
+            double sum = 0;
+            for (long[] column : columnCounts[period]) {
+                sum += indexOfCoincidence(column);
+            }
+            periodScores[period] = sum / period; // average index of coincidence over the columns
+        });
+
+        double bestScore = 0;
+        for (int period = 1; period <= longest; period++) {
+            bestScore = Math.max(bestScore, periodScores[period]);
+        }
+        int preferred = 1;
+        for (int period = 1; period <= longest; period++) {
+            if (periodScores[period] >= bestScore * PERIOD_TOLERANCE) {
+                preferred = period;
+                break;
+            }
+        }
+
+        List<Integer> periods = new ArrayList<>();
+        for (int period = 1; period <= longest; period++) {
+            if (period != preferred) {
+                periods.add(period);
+            }
+        }
+        periods.sort(Comparator.comparingDouble((Integer period) -> periodScores[period]).reversed());
+        periods.add(0, preferred);
+
+        List<KeyCandidate> candidates = new ArrayList<>();
+        for (int period : periods.subList(0, Math.min(MAX_CANDIDATES, periods.size()))) {
+            candidates.add(new KeyCandidate("Vigenere", solveKey(columnCounts[period]), periodScores[period]));
+        }
+        return candidates;
+    }
+
+    /**
+     * Solves each key column as a Caesar shift in parallel
+     *
+     * @param columnCounts 26 letter counts for each column
+     * @return keyword with one letter per column
+     */
+    private static String solveKey(long[][] columnCounts) {
+        char[] keyword = new char[columnCounts.length];
+        IntStream.range(0, columnCounts.length).parallel().forEach(column -> {
+            int shift = Integer.parseInt(CaesarCracker.rank(columnCounts[column]).get(0).getKey());
+            keyword[column] = (char) ('A' + shift); // a shift of n is the keyword letter n places after A
+        });
+        return new String(keyword);
+    }
+}
@@ -0,0 +1,185 @@
+package com.ciphers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This is the engine for a Vigenere Cipher
+ * Letters are shifted through the compiled key's table for their key column,
+ * non-letters are copied unchanged and do not advance the key column
+ * Long texts are split into blocks and processed in parallel
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+final class VigenereEngine implements CipherEngine {
+    private static final int BLOCK_SIZE = 1 << 20; // characters handled by one fork-join task
+    private static final int PARALLEL_THRESHOLD = 4 * BLOCK_SIZE; // shorter texts are not worth splitting
+
+    private final CompiledKey compiled;
+
+    /**
+     * Constructor for the engine
+     *
+     * @param compiled compiled vigenere key
+     */
+    VigenereEngine(CompiledKey compiled) {
+        this.compiled = compiled;
+    }
+
+    @Override
+    public String getCipherType() {
+        return "Vigenere";
+    }
+
+    @Override
+    public String getKey() {
+        return compiled.getKey();
+    }
+
+    @Override
+    public int process(CharSequence in, int from, int to, char[] out, int outOffset, int keyPosition, boolean encrypt) {
+        byte[][] columns = compiled.columns(encrypt);
+        int keywordLength = columns.length;
+        int keywordCharIndex = keyPosition; // j % keywordLength, kept without a division per character
+
+        for (int i = from; i < to; i++) {
+            char inputChar = upperCase(in.charAt(i));
+
+            if (inputChar >= 'A' && inputChar <= 'Z') {
+                out[outOffset++] = (char) columns[keywordCharIndex][inputChar - 'A'];
+            } else if (Character.isLetter(inputChar)) {
+                out[outOffset++] = VigenereCipher.shiftLetter(inputChar, compiled.shift(keywordCharIndex), encrypt);
+            } else {
+                out[outOffset++] = inputChar;
+                continue;
+            }
+            if (++keywordCharIndex == keywordLength) {
+                keywordCharIndex = 0;
+            }
+        }
+        return keywordCharIndex;
+    }
+
+    @Override
+    public String encrypt(CharSequence plaintext) {
+        return plaintext.length() < PARALLEL_THRESHOLD ? CipherEngine.super.encrypt(plaintext) : processParallel(plaintext, true, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public String decrypt(CharSequence ciphertext) {
+        return ciphertext.length() < PARALLEL_THRESHOLD ? CipherEngine.super.decrypt(ciphertext) : processParallel(ciphertext, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel algorithm for vigenere cipher encryption and decryption
+     * The key index only advances on letters, so the letters in each block are counted first
+     * A prefix sum of the counts gives the key column each block starts at,
+     * then every block is encrypted/decrypted independently from its own starting column
+     *
+     * @param text    plain text or cipher text
+     * @param encrypt Boolean - if true then the engine encrypts, else the engine decrypts
+     * @param pool    fork-join pool the blocks are run on
+     * @return result of algorithm after encryption/decryption has been applied to text
+     */
+    String processParallel(CharSequence text, boolean encrypt, ForkJoinPool pool) {
+        int blocks = (text.length() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] letterCounts = new int[blocks];
+        pool.invoke(new BlockTask(text, null, letterCounts, encrypt, 0, blocks));
+
+        int[] startColumns = new int[blocks]; // prefix sum of letters before each block, modulo the key length
+        int period = compiled.getPeriod();
+        int column = 0;
+        for (int block = 0; block < blocks; block++) {
+            startColumns[block] = column;
+            column = (int) ((column + (long) letterCounts[block]) % period);
+        }
+
+        char[] output = new char[text.length()];
+        pool.invoke(new BlockTask(text, output, startColumns, encrypt, 0, blocks));
+        return new String(output);
+    }
+
+    /**
+     * Counts the characters in part of a text that advance the key column
+     *
+     * @param text plain text or cipher text
+     * @param from index of the first character to count
+     * @param to   index after the last character to count
+     * @return number of letters in the range
+     */
+    static int countLetters(CharSequence text, int from, int to) {
+        int letters = 0;
+        for (int i = from; i < to; i++) {
+            char inputChar = text.charAt(i);
+            if ((inputChar >= 'A' && inputChar <= 'Z') || (inputChar >= 'a' && inputChar <= 'z')
+                    || (inputChar > 127 && Character.isLetter(upperCase(inputChar)))) {
+                letters++;
+            }
+        }
+        return letters;
+    }
+
+    /**
+     * Upper case of a single character, with a fast path for ASCII
+     *
+     * @param character character from the text
+     * @return upper case character
+     */
+    private static char upperCase(char character) {
+        if (character < 128) {
+            return character >= 'a' && character <= 'z' ? (char) (character - ('a' - 'A')) : character;
+        }
+        return Character.toUpperCase(character);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("VigenereEngine{");
+        sb.append("key='").append(getKey()).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Fork-join task over a range of blocks
+     * Without an output array it counts the letters in each block,
+     * with one it encrypts/decrypts each block from its starting key column
+     */
+    private final class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence text;
+        private final char[] output;
+        private final int[] blockValues; // letter counts when counting, starting key columns when processing
+        private final boolean encrypt;
+        private final int fromBlock;
+        private final int toBlock;
+
+        BlockTask(CharSequence text, char[] output, int[] blockValues, boolean encrypt, int fromBlock, int toBlock) {
+            this.text = text;
+            this.output = output;
+            this.blockValues = blockValues;
+            this.encrypt = encrypt;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) { // splits until each task has a single block
+                int middle = (fromBlock + toBlock) >>> 1;
+                invokeAll(new BlockTask(text, output, blockValues, encrypt, fromBlock, middle),
+                        new BlockTask(text, output, blockValues, encrypt, middle, toBlock));
+                return;
+            }
+            int from = fromBlock * BLOCK_SIZE;
+            int to = Math.min(from + BLOCK_SIZE, text.length());
+            if (output == null) {
+                blockValues[fromBlock] = countLetters(text, from, to);
+            } else {
+                process(text, from, to, output, from, blockValues[fromBlock], encrypt);
+            }
+        }
+    }
+}
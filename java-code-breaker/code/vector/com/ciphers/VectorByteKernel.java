@@ -0,0 +1,89 @@
+package com.ciphers;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This is the Vector API kernel for the byte-level encryption loops
+ * Handles 32 (AVX2) or 64 (AVX-512) bytes per step
+ * Substitution looks up every lane at once, with the 256-entry table split across 256 / lanes vectors
+ * Vigenere shifts the letters in every lane at once and keeps non-letters with a mask
+ * For Vigenere, the key shifts are laid out as a repeating pattern and each lane picks its shift
+ * from the number of letters before it in the vector, so spaces do not break the key phase
+ * Compile with --add-modules jdk.incubator.vector, it is loaded by ByteKernels when the module is present
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+final class VectorByteKernel implements ByteKernel {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int LOW_BITS = Integer.numberOfTrailingZeros(LANES); // bits of a byte that index within one vector
+
+    @Override
+    public void substitute(byte[] buffer, int from, int to, byte[] table) {
+        ByteVector[] parts = new ByteVector[256 / LANES]; // the table split into vectors, indexed by the high bits of a byte
+        for (int part = 0; part < parts.length; part++) {
+            parts[part] = ByteVector.fromArray(SPECIES, table, part * LANES);
+        }
+        int i = from;
+        for (int bound = to - LANES; i <= bound; i += LANES) {
+            ByteVector text = ByteVector.fromArray(SPECIES, buffer, i);
+            VectorShuffle<Byte> low = text.and((byte) (LANES - 1)).toShuffle();
+            ByteVector high = text.lanewise(VectorOperators.LSHR, LOW_BITS);
+            ByteVector substituted = parts[0].rearrange(low);
+            for (int part = 1; part < parts.length; part++) {
+                substituted = substituted.blend(parts[part].rearrange(low), high.compare(VectorOperators.EQ, (byte) part));
+            }
+            substituted.intoArray(buffer, i);
+        }
+        ByteKernels.KERNEL_SCALAR.substitute(buffer, i, to, table);
+    }
+
+    @Override
+    public int vigenere(byte[] buffer, int from, int to, byte[] shifts, int column) {
+        int keywordLength = shifts.length;
+        byte[] pattern = new byte[keywordLength + LANES]; // shift for key position column + n, for any column and n < LANES
+        for (int k = 0; k < pattern.length; k++) {
+            pattern[k] = shifts[k % keywordLength];
+        }
+        int letters = 0;
+        int i = from;
+        for (int bound = to - LANES; i <= bound; i += LANES) {
+            ByteVector text = ByteVector.fromArray(SPECIES, buffer, i);
+            VectorMask<Byte> isLetter = isUpperCase(text);
+            ByteVector ones = ByteVector.zero(SPECIES).blend((byte) 1, isLetter);
+            ByteVector before = ones; // becomes the number of letters up to and including each lane
+            for (int step = 1; step < LANES; step <<= 1) {
+                before = before.add(before.unslice(step));
+            }
+            before = before.sub(ones); // letters strictly before each lane
+            ByteVector laneShifts = ByteVector.fromArray(SPECIES, pattern, column).rearrange(before.toShuffle());
+            ByteVector shifted = text.sub((byte) 'A').add(laneShifts);
+            shifted = shifted.lanewise(VectorOperators.SUB, (byte) 26, shifted.compare(VectorOperators.GE, (byte) 26));
+            text.blend(shifted.add((byte) 'A'), isLetter).intoArray(buffer, i);
+            int shiftedLetters = isLetter.trueCount();
+            column = (column + shiftedLetters) % keywordLength;
+            letters += shiftedLetters;
+        }
+        return letters + ByteKernels.KERNEL_SCALAR.vigenere(buffer, i, to, shifts, column);
+    }
+
+    @Override
+    public String name() {
+        return LANES >= 32 ? "vector-" + LANES * 8 : null; // narrower vectors split the table into too many parts to beat the scalar loop
+    }
+
+    /**
+     * Lanes holding A-Z
+     *
+     * @param text bytes of text
+     * @return mask of upper case letter lanes
+     */
+    private static VectorMask<Byte> isUpperCase(ByteVector text) {
+        return text.compare(VectorOperators.GE, (byte) 'A').and(text.compare(VectorOperators.LE, (byte) 'Z'));
+    }
+}
@@ -0,0 +1,202 @@
+package com.ciphers;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * This is the class for checking the vector kernel against the scalar kernel
+ * Runs both kernels over the same random buffers, offsets, lengths, keys and byte mixes and stops at the first
+ * difference, printing the case so it can be run again from its seed
+ * It also prints a checksum of the same cases run through StreamingCipher with whichever kernel was selected,
+ * so running it again with -Dcom.ciphers.vector=false must print the same checksum
+ *
+ * Usage: java --add-modules jdk.incubator.vector com.ciphers.VectorKernelCheck [cases] [seed]
+ *
+ * @author Ethan Swain
+ * @version 1.0, 18th October 2026
+ */
+public final class VectorKernelCheck {
+    private static final int DEFAULT_CASES = 100_000;
+    private static final int MAX_LENGTH = 4096; // most cases are short so the vector loop and its scalar tail both get hit
+    private static final int LONG_LENGTH = 1 << 20; // one case in a hundred is long
+    private static final String[] MIXES = {"letters", "prepared", "ascii", "any byte", "high bytes"};
+
+    private VectorKernelCheck() {
+    }
+
+    /**
+     * Main method, exits with status 1 at the first difference
+     *
+     * @param args number of cases and seed, both optional
+     */
+    public static void main(String[] args) {
+        int cases = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CASES;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        ByteKernel scalar = ByteKernels.KERNEL_SCALAR;
+        ByteKernel vector = vectorKernel();
+        System.out.println("Selected kernel: " + ByteKernel.get().name());
+        System.out.println("Seed: " + seed);
+        if (vector == null) {
+            System.out.println("Vector kernel is not available on this JVM, only the checksum is computed.");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long checksum = 0;
+        for (int c = 0; c < cases; c++) {
+            int length = random.nextInt(100) == 0 ? random.nextInt(LONG_LENGTH) : random.nextInt(MAX_LENGTH);
+            int mix = random.nextInt(MIXES.length);
+            byte[] buffer = randomBytes(random, length + 64, mix);
+            int from = random.nextInt(Math.min(64, buffer.length) + 1); // offsets that are not lane aligned
+            int to = from + random.nextInt(buffer.length - from + 1);
+            boolean substitution = random.nextBoolean();
+            byte[] table = substitution ? randomTable(random) : null;
+            byte[] shifts = substitution ? null : randomShifts(random);
+            int column = substitution ? 0 : random.nextInt(shifts.length);
+
+            if (vector != null) {
+                byte[] expected = buffer.clone();
+                byte[] actual = buffer.clone();
+                int expectedLetters = 0;
+                int actualLetters = 0;
+                if (substitution) {
+                    scalar.substitute(expected, from, to, table);
+                    vector.substitute(actual, from, to, table);
+                } else {
+                    expectedLetters = scalar.vigenere(expected, from, to, shifts, column);
+                    actualLetters = vector.vigenere(actual, from, to, shifts, column);
+                }
+                if (!Arrays.equals(expected, actual) || expectedLetters != actualLetters) {
+                    System.err.println("Error occurred. Vector kernel differs from the scalar kernel in case " + c
+                            + ": " + (substitution ? "substitute" : "vigenere, key length " + shifts.length + ", column " + column)
+                            + ", " + MIXES[mix] + ", buffer " + buffer.length + ", from " + from + ", to " + to
+                            + ", first difference at " + Arrays.mismatch(expected, actual)
+                            + ", letters " + expectedLetters + " scalar / " + actualLetters + " vector");
+                    System.exit(1);
+                }
+            }
+            checksum = checksum * 31 + Arrays.hashCode(streamed(buffer, from, to, table, shifts, column));
+        }
+        System.out.println(cases + " cases matched" + (vector == null ? " (not compared)" : ""));
+        System.out.println("Checksum: " + Long.toHexString(checksum));
+    }
+
+    /**
+     * Creates the vector kernel directly, whatever -Dcom.ciphers.vector is set to
+     *
+     * @return vector kernel, or null if the module is missing or the vectors are too narrow
+     */
+    private static ByteKernel vectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        ByteKernel vector = new VectorByteKernel();
+        return vector.name() != null ? vector : null;
+    }
+
+    /**
+     * Runs a case through StreamingCipher, which uses the selected kernel
+     *
+     * @param buffer bytes of the case
+     * @param from   index of the first byte
+     * @param to     index after the last byte
+     * @param table  substitution table, or null for Vigenere
+     * @param shifts Vigenere shifts, or null for substitution
+     * @param column starting Vigenere key column
+     * @return processed copy of the buffer
+     */
+    private static byte[] streamed(byte[] buffer, int from, int to, byte[] table, byte[] shifts, int column) {
+        byte[] copy = buffer.clone();
+        byte[][] columns = null;
+        if (shifts != null) {
+            columns = new byte[shifts.length][26];
+            for (int k = 0; k < shifts.length; k++) {
+                for (int letter = 0; letter < 26; letter++) {
+                    columns[k][letter] = (byte) ('A' + (letter + shifts[k]) % 26);
+                }
+            }
+        }
+        StreamingCipher streamingCipher = new StreamingCipher("Check", true, table, columns, shifts);
+        streamingCipher.setKeyPosition(column);
+        streamingCipher.process(copy, from, to - from);
+        return copy;
+    }
+
+    /**
+     * Random bytes from one of the mixes
+     *
+     * @param random random source
+     * @param length number of bytes
+     * @param mix    index into MIXES
+     * @return bytes
+     */
+    private static byte[] randomBytes(SplittableRandom random, int length, int mix) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            switch (mix) {
+                case 0: // letters only
+                    bytes[i] = (byte) ('A' + random.nextInt(26));
+                    break;
+                case 1: // prepared text, letters with whitespace
+                    int value = random.nextInt(32);
+                    bytes[i] = value < 26 ? (byte) ('A' + value) : value < 30 ? (byte) ' ' : (byte) '\n';
+                    break;
+                case 2: // printable ASCII, including lower case and the bytes either side of A-Z
+                    bytes[i] = (byte) (32 + random.nextInt(95));
+                    break;
+                case 3: // every byte value
+                    bytes[i] = (byte) random.nextInt(256);
+                    break;
+                default: // bytes 128-255, negative as Java bytes
+                    bytes[i] = (byte) (128 + random.nextInt(128));
+                    break;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Random substitution table, a compiled Caesar or Keyed Caesar key or any permutation of the 256 byte values
+     *
+     * @param random random source
+     * @return 256-entry table
+     */
+    private static byte[] randomTable(SplittableRandom random) {
+        boolean encrypt = random.nextBoolean();
+        switch (random.nextInt(3)) {
+            case 0:
+                return CompiledKey.compile("Caesar", Integer.toString(random.nextInt(26))).table(encrypt);
+            case 1:
+                char[] keyword = new char[1 + random.nextInt(12)];
+                for (int i = 0; i < keyword.length; i++) {
+                    keyword[i] = (char) ('A' + random.nextInt(26));
+                }
+                return CompiledKey.compile("Keyed Caesar", random.nextInt(26) + new String(keyword)).table(encrypt);
+            default:
+                byte[] table = new byte[256];
+                for (int i = 0; i < 256; i++) {
+                    table[i] = (byte) i;
+                }
+                for (int i = 255; i > 0; i--) { // Fisher-Yates shuffle
+                    int j = random.nextInt(i + 1);
+                    byte swap = table[i];
+                    table[i] = table[j];
+                    table[j] = swap;
+                }
+                return table;
+        }
+    }
+
+    /**
+     * Random Vigenere shifts, from one key column to longer than a vector
+     *
+     * @param random random source
+     * @return shift 0-25 for each key column
+     */
+    private static byte[] randomShifts(SplittableRandom random) {
+        byte[] shifts = new byte[1 + random.nextInt(random.nextBoolean() ? 8 : 100)];
+        for (int k = 0; k < shifts.length; k++) {
+            shifts[k] = (byte) random.nextInt(26);
+        }
+        return shifts;
+    }
+}